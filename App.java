@@ -1,5 +0,0 @@
-public class App {
-    public static void main(String[] args) throws Exception {
-        TicTacToe tictactoe =new TicTacToe();
-    }
-}
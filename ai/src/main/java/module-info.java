@@ -0,0 +1,7 @@
+// Searches, the async AI, difficulty presets, books and self-play.
+module tictactoe.ai {
+    requires transitive tictactoe.engine;
+    requires java.management;
+
+    exports tictactoe.ai;
+}
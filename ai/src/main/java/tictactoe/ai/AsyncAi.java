@@ -0,0 +1,193 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.PerfectPlayTable;
+import tictactoe.engine.UltimateBoard;
+
+// Computes AI moves on a worker thread instead of the caller's thread (in the
+// UI, the Event Dispatch Thread). Each request works on a snapshot of the
+// board, waits out the think delay and then completes its future with the
+// chosen cell. Starting a new request or calling cancel() abandons the
+// previous one and stops its search.
+//
+// The engine is alpha-beta (with the solved table on 3x3) or Monte Carlo tree
+// search; both probe the opening book and tablebase first. Below Hard the
+// Difficulty picks the move instead, with its own depth limit and, off 3x3,
+// its own small node budget.
+// Ultimate games always use UltimateSearch; below Hard the Difficulty's node
+// budget becomes its playout budget.
+public final class AsyncAi implements AutoCloseable {
+    public static final long DEFAULT_THINK_DELAY_MS = 600;
+    public static final long DEFAULT_TIME_BUDGET_MS = 1000;
+    public static final int ALPHA_BETA = 0;
+    public static final int MCTS = 1;
+
+    private final ExecutorService worker;
+    private final ParallelSearch search;
+    private final MctsSearch mcts; // null unless the engine is MCTS
+    private final ForkJoinPool pool;
+    private volatile UltimateSearch ultimate; // created by the first Ultimate request
+    private final long thinkDelayMillis;
+    private final long timeBudgetMillis;
+    private volatile Difficulty difficulty = Difficulty.HARD;
+    private CompletableFuture<Integer> pending;
+    private AtomicBoolean pendingStop; // the pending request's stop signal
+
+    public AsyncAi() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THINK_DELAY_MS, DEFAULT_TIME_BUDGET_MS);
+    }
+
+    public AsyncAi(ForkJoinPool pool, long thinkDelayMillis, long timeBudgetMillis) {
+        this(pool, thinkDelayMillis, timeBudgetMillis, ALPHA_BETA);
+    }
+
+    public AsyncAi(ForkJoinPool pool, long thinkDelayMillis, long timeBudgetMillis, int engine) {
+        if (thinkDelayMillis < 0) throw new IllegalArgumentException("Think delay must not be negative");
+        if (timeBudgetMillis <= 0) throw new IllegalArgumentException("Time budget must be positive");
+        if (engine != ALPHA_BETA && engine != MCTS) throw new IllegalArgumentException("Unknown engine: " + engine);
+        this.pool = pool;
+        this.search = new ParallelSearch(pool);
+        if (engine == MCTS) {
+            this.mcts = new MctsSearch(pool, pool.getParallelism());
+            // Our move and the reply usually leave the next position inside the old tree
+            mcts.setTreeReuse(Boolean.parseBoolean(System.getProperty("ttt.mctsTreeReuse", "true")));
+        } else {
+            this.mcts = null;
+        }
+        this.thinkDelayMillis = thinkDelayMillis;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.worker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "tic-tac-toe-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long getThinkDelayMillis() {
+        return thinkDelayMillis;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // Applies from the next move on
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getEngine() {
+        return mcts == null ? ALPHA_BETA : MCTS;
+    }
+
+    // Completes with the best cell for the side to move, or -1 if the game is over
+    public CompletableFuture<Integer> requestMove(GridBoard position) {
+        GridBoard snapshot = position.copy();
+        AtomicBoolean stop = new AtomicBoolean();
+        return submit(() -> chooseMove(snapshot, stop), stop);
+    }
+
+    public CompletableFuture<Integer> requestMove(UltimateBoard position) {
+        UltimateBoard snapshot = position.copy();
+        AtomicBoolean stop = new AtomicBoolean();
+        return submit(() -> chooseMove(snapshot, stop), stop);
+    }
+
+    // Every request brings a fresh stop signal that only cancel() sets, so a cancel
+    // that lands before the worker picks the request up still stops its search
+    private synchronized CompletableFuture<Integer> submit(IntSupplier choice, AtomicBoolean stop) {
+        cancel();
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        Executor delayed = thinkDelayMillis == 0 ? worker
+                : CompletableFuture.delayedExecutor(thinkDelayMillis, TimeUnit.MILLISECONDS, worker);
+        delayed.execute(() -> {
+            if (future.isDone()) return;
+            try {
+                future.complete(choice.getAsInt());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        pending = future;
+        pendingStop = stop;
+        return future;
+    }
+
+    public synchronized void cancel() {
+        if (pending != null) {
+            pendingStop.set(true);
+            pending.cancel(false);
+            pending = null;
+            pendingStop = null;
+        }
+    }
+
+    // Runs on the calling thread; requestMove is the non-blocking entry point
+    public int chooseMove(GridBoard board) {
+        return chooseMove(board, new AtomicBoolean());
+    }
+
+    private int chooseMove(GridBoard board, AtomicBoolean stop) {
+        Difficulty level = difficulty;
+        if (!level.isPerfect()) {
+            long start = System.nanoTime();
+            int move = level.chooseMove(board, timeBudgetMillis, new SplittableRandom(), stop);
+            SearchMetrics.recordMove(null, 0, System.nanoTime() - start);
+            return move;
+        }
+        if (board.getVariant().isClassic() && mcts == null) {
+            long start = System.nanoTime();
+            int move = PerfectPlayTable.bestMove(board.mask(GameEngine.X), board.mask(GameEngine.O));
+            SearchMetrics.recordMove(null, 0, System.nanoTime() - start);
+            return move;
+        }
+        long start = System.nanoTime();
+        int booked = Books.probe(board);
+        if (booked != PositionBook.NO_MOVE) {
+            SearchMetrics.recordMove(null, 0, System.nanoTime() - start);
+            return booked;
+        }
+        if (mcts != null) {
+            int move = mcts.findBestMove(board, 0, timeBudgetMillis, stop);
+            SearchMetrics.recordMove(mcts.getStats(), 0, mcts.getElapsedNanos());
+            return move;
+        }
+        int move = search.findBestMove(board, timeBudgetMillis, stop);
+        SearchMetrics.recordMove(search.getStats(), search.getCompletedDepth(), search.getElapsedNanos());
+        return move;
+    }
+
+    public int chooseMove(UltimateBoard board) {
+        return chooseMove(board, new AtomicBoolean());
+    }
+
+    private int chooseMove(UltimateBoard board, AtomicBoolean stop) {
+        if (ultimate == null) ultimate = new UltimateSearch(pool, pool.getParallelism());
+        Difficulty level = difficulty;
+        int playoutBudget = level.isPerfect() ? 0 : (int) Math.min(Integer.MAX_VALUE, level.getNodeBudget());
+        int move = ultimate.findBestMove(board, playoutBudget, timeBudgetMillis, stop);
+        SearchMetrics.recordMove(ultimate.getStats(), 0, ultimate.getElapsedNanos());
+        return move;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        worker.shutdownNow();
+    }
+}
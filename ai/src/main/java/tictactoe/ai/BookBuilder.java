@@ -0,0 +1,145 @@
+package tictactoe.ai;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Symmetry;
+import tictactoe.engine.Variant;
+
+// Offline generator for the PositionBook files of one variant.
+//
+// Opening book: every position up to --plies moves deep (one per symmetry
+// class, children from the search's own move generator) is searched for
+// --book-ms and its best move stored.
+//
+// Endgame tablebase: random games are played down to --endgame-empty empty
+// cells and every position from there on is solved to the end of the game;
+// only exact results are stored. It is only worthwhile on boards small
+// enough to fill up, so it is skipped by default above 5x5.
+//
+//   java tictactoe.ai.BookBuilder --size 4 --win 4 [--plies 3] [--book-ms 1000]
+//       [--endgame-empty 8] [--endgame-games 20000] [--seed 1] [--out books]
+public final class BookBuilder {
+    public static void main(String[] args) throws IOException {
+        int size = 4;
+        int win = 4;
+        int plies = 3;
+        long bookMillis = 1000;
+        int endgameEmpty = 8;
+        int endgameGames = -1;
+        long seed = 1;
+        Path out = Paths.get("books");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--size": size = Integer.parseInt(args[i + 1]); break;
+                case "--win": win = Integer.parseInt(args[i + 1]); break;
+                case "--plies": plies = Integer.parseInt(args[i + 1]); break;
+                case "--book-ms": bookMillis = Long.parseLong(args[i + 1]); break;
+                case "--endgame-empty": endgameEmpty = Integer.parseInt(args[i + 1]); break;
+                case "--endgame-games": endgameGames = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--out": out = Paths.get(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Variant variant = Variant.of(size, win);
+        if (endgameGames < 0) endgameGames = variant.getCells() <= 25 ? 20000 : 0;
+        Files.createDirectories(out);
+
+        long start = System.nanoTime();
+        TreeMap<Long, int[]> book = buildOpeningBook(variant, plies, bookMillis);
+        Path bookFile = out.resolve(Books.fileName(variant, PositionBook.OPENING));
+        PositionBook.write(bookFile, PositionBook.OPENING, variant, book);
+        System.out.printf("%s: %d positions in %.1fs%n", bookFile, book.size(), (System.nanoTime() - start) / 1e9);
+
+        if (endgameGames > 0) {
+            start = System.nanoTime();
+            TreeMap<Long, int[]> tablebase = buildTablebase(variant, endgameEmpty, endgameGames, seed);
+            Path tablebaseFile = out.resolve(Books.fileName(variant, PositionBook.ENDGAME));
+            PositionBook.write(tablebaseFile, PositionBook.ENDGAME, variant, tablebase);
+            System.out.printf("%s: %d positions in %.1fs%n", tablebaseFile, tablebase.size(),
+                    (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    static TreeMap<Long, int[]> buildOpeningBook(Variant variant, int plies, long millis) {
+        TreeMap<Long, int[]> entries = new TreeMap<>();
+        GridSearch search = new GridSearch(millis, Integer.MAX_VALUE, new SearchCache(SearchCache.DEFAULT_MB,
+                SearchCache.DEPTH_PREFERRED));
+        int[] moves = new int[variant.getCells()];
+        List<GridBoard> level = new ArrayList<>();
+        level.add(new GridBoard(variant));
+        for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+            List<GridBoard> next = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (GridBoard board : level) {
+                search.clear();
+                int move = search.findBestMove(board);
+                int t = board.canonicalSymmetry();
+                int flags = Math.abs(search.getBestScore()) >= GridSearch.MATE_BOUND ? PositionBook.EXACT : 0;
+                entries.put(board.symmetricHash(t), new int[] {
+                        Symmetry.cellMaps(variant.getSize())[t][move], search.getBestScore(),
+                        search.getCompletedDepth(), flags});
+
+                int count = GridSearch.generateMoves(board, moves);
+                for (int i = 0; i < count; i++) {
+                    board.play(moves[i]);
+                    if (!board.isGameOver() && seen.add(board.canonicalHash())) next.add(board.copy());
+                    board.undo();
+                }
+            }
+            System.out.printf("  ply %d: %d positions%n", ply, level.size());
+            level = next;
+        }
+        return entries;
+    }
+
+    static TreeMap<Long, int[]> buildTablebase(Variant variant, int maxEmpty, int games, long seed) {
+        TreeMap<Long, int[]> entries = new TreeMap<>();
+        GridSearch search = new GridSearch(60_000, Integer.MAX_VALUE, new SearchCache(SearchCache.DEFAULT_MB,
+                SearchCache.DEPTH_PREFERRED));
+        SplittableRandom random = new SplittableRandom(seed);
+        GridBoard board = new GridBoard(variant);
+        int cells = variant.getCells();
+        for (int game = 0; game < games; game++) {
+            board.reset();
+            while (!board.isGameOver()) {
+                int empty = cells - board.getMoveCount();
+                if (empty <= maxEmpty) {
+                    long hash = board.canonicalHash();
+                    if (!entries.containsKey(hash)) solve(board, search, entries);
+                }
+                board.play(randomEmptyCell(board, random));
+            }
+        }
+        return entries;
+    }
+
+    // Full-depth search; kept only if every line reached the end of the game
+    private static void solve(GridBoard board, GridSearch search, TreeMap<Long, int[]> entries) {
+        int empty = board.getCellCount() - board.getMoveCount();
+        int move = search.findBestMove(board);
+        int score = search.getBestScore();
+        boolean exact = search.getCompletedDepth() == empty || Math.abs(score) >= GridSearch.MATE_BOUND;
+        if (!exact) return;
+        int t = board.canonicalSymmetry();
+        entries.put(board.symmetricHash(t), new int[] {
+                Symmetry.cellMaps(board.getSize())[t][move], score, search.getCompletedDepth(), PositionBook.EXACT});
+    }
+
+    private static int randomEmptyCell(GridBoard board, SplittableRandom random) {
+        int skip = random.nextInt(board.getCellCount() - board.getMoveCount());
+        for (int cell = 0; ; cell++) {
+            if (board.isEmpty(cell) && skip-- == 0) return cell;
+        }
+    }
+}
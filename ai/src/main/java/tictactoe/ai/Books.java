@@ -0,0 +1,60 @@
+package tictactoe.ai;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// Finds the opening book and endgame tablebase for a variant in the books
+// directory (-Dttt.books, default "books") and maps each file on first use.
+// Files are named after the variant, for example 4x4k4.book and 4x4k4.tb.
+// A missing or unreadable file just means that variant has no book.
+final class Books {
+    private static final Path DIRECTORY = Paths.get(System.getProperty("ttt.books", "books"));
+    private static final Map<String, PositionBook> LOADED = new HashMap<>();
+
+    private Books() {
+    }
+
+    static String fileName(Variant variant, int kind) {
+        return variant.getSize() + "x" + variant.getSize() + "k" + variant.getWinLength()
+                + (kind == PositionBook.OPENING ? ".book" : ".tb");
+    }
+
+    // Tablebase first, since its moves are exact, then the opening book
+    static int probe(GridBoard board) {
+        if (board.isGameOver()) return PositionBook.NO_MOVE;
+        PositionBook tablebase = get(board.getVariant(), PositionBook.ENDGAME);
+        if (tablebase != null) {
+            int move = tablebase.probe(board);
+            if (move != PositionBook.NO_MOVE) return move;
+        }
+        PositionBook book = get(board.getVariant(), PositionBook.OPENING);
+        return book == null ? PositionBook.NO_MOVE : book.probe(board);
+    }
+
+    static synchronized PositionBook get(Variant variant, int kind) {
+        String name = fileName(variant, kind);
+        if (LOADED.containsKey(name)) return LOADED.get(name);
+        PositionBook book = null;
+        Path path = DIRECTORY.resolve(name);
+        if (Files.isRegularFile(path)) {
+            try {
+                book = PositionBook.open(path);
+                if (!book.matches(variant) || book.getKind() != kind) {
+                    System.err.println(path + " was built for a different variant; ignoring it");
+                    book = null;
+                }
+            } catch (IOException e) {
+                System.err.println("Could not load " + path + ": " + e.getMessage());
+            }
+        }
+        LOADED.put(name, book);
+        return book;
+    }
+}
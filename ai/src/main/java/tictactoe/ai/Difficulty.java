@@ -0,0 +1,158 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.PerfectPlayTable;
+
+// How well the AI plays. Below Hard, every candidate move is scored by a
+// depth-limited search, and the move is drawn from a softmax over those
+// scores; with probability epsilon a random candidate is played instead. Hard
+// is the full engine. The lower levels are also the cheap ones: on N x N
+// boards the search is capped at 2,000 nodes a move on Easy and 50,000 on
+// Medium. On 3x3 the depth alone bounds it, to 9 nodes on Easy and 585 on
+// Medium, so no budget is applied there.
+public final class Difficulty {
+    public static final Difficulty EASY = new Difficulty("Easy", 1, 0.25, 0.5, 2_000);
+    public static final Difficulty MEDIUM = new Difficulty("Medium", 3, 0.08, 0.15, 50_000);
+    public static final Difficulty HARD = new Difficulty("Hard", Integer.MAX_VALUE, 0, 0, 0);
+
+    public static final Difficulty[] LEVELS = {EASY, MEDIUM, HARD};
+
+    // Grid scores are squashed through tanh(score / EVAL_SCALE) before the softmax
+    private static final double EVAL_SCALE = 512;
+    private static final ThreadLocal<GridSearch> SEARCHERS = ThreadLocal.withInitial(GridSearch::new);
+
+    private final String name;
+    private final int maxDepth;
+    private final double epsilon;
+    private final double temperature;
+    private final long nodeBudget;
+    // Salts this level's keys in the shared cache. It is the same for every search
+    // the level makes, which keeps its entries apart from the full engine's and the
+    // other levels', so a level never plays from deeper searches than its own.
+    private final long cacheSalt;
+
+    public Difficulty(String name, int maxDepth, double epsilon, double temperature, long nodeBudget) {
+        if (maxDepth <= 0) throw new IllegalArgumentException("Depth must be positive");
+        if (epsilon < 0 || epsilon > 1) throw new IllegalArgumentException("Epsilon must be between 0 and 1");
+        if (temperature < 0) throw new IllegalArgumentException("Temperature must not be negative");
+        this.name = name;
+        this.maxDepth = maxDepth;
+        this.epsilon = epsilon;
+        this.temperature = temperature;
+        this.nodeBudget = nodeBudget;
+        this.cacheSalt = (name.hashCode() | 1L) * 0xC2B2AE3D27D4EB4FL;
+    }
+
+    public static Difficulty named(String name) {
+        for (Difficulty level : LEVELS) {
+            if (level.name.equalsIgnoreCase(name)) return level;
+        }
+        throw new IllegalArgumentException("Unknown difficulty: " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    // Nodes per move over all candidates on N x N boards; 0 means no limit
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    // Plays like the full engine: no depth limit, no noise
+    public boolean isPerfect() {
+        return maxDepth == Integer.MAX_VALUE && epsilon == 0 && temperature == 0 && nodeBudget == 0;
+    }
+
+    // 3x3 move for the side to move from the bitboard position
+    public int chooseMove(int xMask, int oMask, SplittableRandom random) {
+        if (isPerfect()) return PerfectPlayTable.bestMove(xMask, oMask);
+        int[] moves = new int[GameEngine.CELLS];
+        int count = 0;
+        for (int bits = ~(xMask | oMask) & GameEngine.FULL; bits != 0; bits &= bits - 1) {
+            moves[count++] = Integer.numberOfTrailingZeros(bits);
+        }
+        if (count == 0) return -1;
+        if (count == 1 || random.nextDouble() < epsilon) return moves[random.nextInt(count)];
+
+        int[] scores = new int[GameEngine.CELLS];
+        GameEngine.depthLimitedScores(xMask, oMask, maxDepth, scores);
+        double[] utilities = new double[count];
+        for (int i = 0; i < count; i++) {
+            utilities[i] = scores[moves[i]] / 10.0;
+        }
+        return moves[pick(utilities, count, random)];
+    }
+
+    // Move for the side to move on any board; Hard returns -1 to leave the move to the full engine
+    public int chooseMove(GridBoard board, long timeBudgetMillis, SplittableRandom random) {
+        return chooseMove(board, timeBudgetMillis, random, new AtomicBoolean());
+    }
+
+    // As above, also stopping the search once stop is set
+    int chooseMove(GridBoard board, long timeBudgetMillis, SplittableRandom random, AtomicBoolean stop) {
+        if (isPerfect() || board.isGameOver()) return -1;
+        if (board.getVariant().isClassic()) {
+            return chooseMove(board.mask(GameEngine.X), board.mask(GameEngine.O), random);
+        }
+        int[] moves = new int[board.getCellCount()];
+        int count = GridSearch.generateMoves(board, moves);
+        if (count == 1 || random.nextDouble() < epsilon) return moves[random.nextInt(count)];
+
+        GridSearch search = SEARCHERS.get();
+        search.setNodeBudget(nodeBudget == 0 ? Long.MAX_VALUE : Math.max(1, nodeBudget / count));
+        int depth = Math.min(maxDepth, board.getCellCount() - board.getMoveCount());
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        double[] utilities = new double[count];
+        // Level searches are small and keep to the level's own salt, so they share the
+        // newest generation instead of starting one each
+        int generation = search.getCache().currentGeneration();
+        for (int i = 0; i < count; i++) {
+            int score = search.searchMove(board, moves[i], depth, -GridSearch.INFINITY, GridSearch.INFINITY,
+                    deadline, cacheSalt, generation, stop);
+            utilities[i] = Math.abs(score) >= GridSearch.MATE_BOUND ? Math.signum(score)
+                    : Math.tanh(score / EVAL_SCALE);
+        }
+        return moves[pick(utilities, count, random)];
+    }
+
+    // Softmax over utilities in [-1, 1]; temperature 0 is argmax with random tie-breaks
+    private int pick(double[] utilities, int count, SplittableRandom random) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) best = Math.max(best, utilities[i]);
+        double[] weights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            if (temperature == 0) weights[i] = utilities[i] == best ? 1 : 0;
+            else weights[i] = Math.exp((utilities[i] - best) / temperature);
+            total += weights[i];
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < count; i++) {
+            target -= weights[i];
+            if (target < 0) return i;
+        }
+        return count - 1;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,399 @@
+package tictactoe.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+
+// Iterative-deepening alpha-beta for N x N boards. Each iteration searches one
+// ply deeper until the time budget runs out; the move from the last completed
+// iteration is played. Moves are ordered by the transposition table move and a
+// history heuristic, and unfinished positions are scored by counting open
+// K-cell windows for each side. The transposition table is a SearchCache,
+// shared by every search in the process unless one is passed in.
+public final class GridSearch {
+    public static final int WIN_SCORE = 1_000_000;
+    static final int MATE_BOUND = WIN_SCORE - 1000;
+    static final int INFINITY = WIN_SCORE + 1;
+
+    private static final int EXACT = 0;
+    private static final int LOWER = 1;
+    private static final int UPPER = 2;
+
+    private static final int TIME_CHECK_INTERVAL = 1023;
+    private static final AtomicBoolean NOT_STOPPED = new AtomicBoolean(); // findBestMove stops on time alone
+
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+    private final SearchCache cache;
+
+    private int[] history = new int[0];
+    private int[][] moveBuffers = new int[0][];
+    private int[][] scoreBuffers = new int[0][];
+    private int[] windowWeights = new int[0];
+
+    private long nodeBudget = Long.MAX_VALUE;
+    private long keySalt;
+    // Zobrist hashes do not include the board size, so keys are salted per variant
+    private long variantSalt;
+    private int generation; // the cache generation of the running search
+    // searchMove only takes table results stored at exactly the depth it needs, so
+    // whatever other searches left in the shared table cannot change its score
+    private boolean exactDepthHits;
+    private long deadline;
+    private AtomicBoolean stopSignal = NOT_STOPPED; // the running searchMove's
+    private boolean timedOut;
+    private long nodes;
+    private long cutoffs;
+    private long ttHits;
+    private long ttMisses;
+    private int maxPly;
+    private int completedDepth;
+    private int bestScore;
+    private int rootBestMove;
+
+    // For callers that drive the search through searchMove with their own deadline
+    // and stop signal
+    GridSearch() {
+        this.timeBudgetMillis = 0;
+        this.maxDepth = Integer.MAX_VALUE;
+        this.cache = SearchCache.shared();
+    }
+
+    public GridSearch(long timeBudgetMillis) {
+        this(timeBudgetMillis, Integer.MAX_VALUE);
+    }
+
+    public GridSearch(long timeBudgetMillis, int maxDepth) {
+        this(timeBudgetMillis, maxDepth, SearchCache.shared());
+    }
+
+    public GridSearch(long timeBudgetMillis, int maxDepth, SearchCache cache) {
+        if (timeBudgetMillis <= 0) throw new IllegalArgumentException("Time budget must be positive");
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = maxDepth;
+        this.cache = cache;
+    }
+
+    public SearchCache getCache() {
+        return cache;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getTtHits() {
+        return ttHits;
+    }
+
+    public long getTtMisses() {
+        return ttMisses;
+    }
+
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    // Adds this instance's counters from its last search
+    void addTo(SearchStats stats) {
+        stats.nodes += nodes;
+        stats.cutoffs += cutoffs;
+        stats.ttHits += ttHits;
+        stats.ttMisses += ttMisses;
+        stats.maxPly = Math.max(stats.maxPly, maxPly);
+    }
+
+    // Nodes allowed per search (per root move for searchMove); hitting it stops
+    // the search like running out of time
+    public void setNodeBudget(long nodeBudget) {
+        if (nodeBudget <= 0) throw new IllegalArgumentException("Node budget must be positive");
+        this.nodeBudget = nodeBudget;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    // Forget everything learned from earlier searches, including the cache, which
+    // every search sharing it loses too
+    public void clear() {
+        cache.clear();
+        Arrays.fill(history, 0);
+    }
+
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    // Best cell for the side to move, or -1 if the game is over
+    public int findBestMove(GridBoard board) {
+        if (board.isGameOver()) return -1;
+        prepare(board);
+        generation = cache.newSearch();
+        exactDepthHits = false;
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        stopSignal = NOT_STOPPED;
+        timedOut = false;
+        resetCounters();
+        completedDepth = 0;
+
+        int cells = board.getCellCount();
+        int[] rootMoves = moveBuffers[0];
+        int rootCount = generateMoves(board, rootMoves);
+        int bestMove = rootMoves[0];
+        bestScore = 0;
+        if (rootCount == 1) return bestMove;
+
+        int depthLimit = Math.min(maxDepth, cells - board.getMoveCount());
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            int score = negamax(board, depth, 0, -INFINITY, INFINITY);
+            if (timedOut) break;
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            // A forced result does not change with more depth
+            if (Math.abs(score) >= MATE_BOUND) break;
+        }
+        cache.record(ttHits, ttMisses);
+        return bestMove;
+    }
+
+    // Score of one root move, searched to the given depth from a clean state: history
+    // is cleared and table entries only count at exactly the depth they were stored
+    // for, so a score above alpha does not depend on what this or any other search
+    // stored before. The salt keeps other callers' entries apart; generation is the
+    // caller's, from the cache's newSearch(). Setting stop ends the search at the next
+    // time check, like the deadline.
+    int searchMove(GridBoard board, int move, int depth, int alpha, int beta, long deadlineNanos, long salt,
+            int generation, AtomicBoolean stop) {
+        prepare(board);
+        Arrays.fill(history, 0);
+        keySalt = salt;
+        this.generation = generation;
+        exactDepthHits = true;
+        deadline = deadlineNanos;
+        stopSignal = stop;
+        timedOut = false;
+        resetCounters();
+
+        board.play(move);
+        int score = 0;
+        for (int d = 1; d <= depth; d++) {
+            int result = d < depth
+                    ? -negamax(board, d - 1, 1, -INFINITY, INFINITY)
+                    : -negamax(board, d - 1, 1, -beta, -alpha);
+            // An interrupted depth keeps the score of the last finished one
+            if (timedOut) break;
+            score = result;
+            if (Math.abs(score) >= MATE_BOUND) break;
+        }
+        board.undo();
+        cache.record(ttHits, ttMisses);
+        return score;
+    }
+
+    private void resetCounters() {
+        nodes = 0;
+        cutoffs = 0;
+        ttHits = 0;
+        ttMisses = 0;
+        maxPly = 0;
+    }
+
+    private void prepare(GridBoard board) {
+        variantSalt = (board.getSize() * 32L + board.getWinLength()) * 0x9E3779B97F4A7C15L;
+        int cells = board.getCellCount();
+        if (history.length != cells) {
+            history = new int[cells];
+            moveBuffers = new int[cells + 1][cells];
+            scoreBuffers = new int[cells + 1][cells];
+        } else {
+            // Age the history so earlier moves do not dominate ordering forever
+            for (int i = 0; i < cells; i++) history[i] >>= 2;
+        }
+        int k = board.getWinLength();
+        if (windowWeights.length != k + 1) windowWeights = new int[k + 1];
+        // x8 per stone, capped so that even every window at the top weight stays
+        // below MATE_BOUND and a static score can never pass for a forced win
+        int span = board.getSize() - k + 1;
+        long windows = 2L * board.getSize() * span + 2L * span * span;
+        long cap = (MATE_BOUND - 1) / windows;
+        long weight = 1;
+        for (int count = 1; count < k; count++) {
+            windowWeights[count] = (int) weight;
+            weight = Math.min(weight * 8, cap);
+        }
+    }
+
+    private int negamax(GridBoard board, int depth, int ply, int alpha, int beta) {
+        if (++nodes > nodeBudget
+                || (nodes & TIME_CHECK_INTERVAL) == 0 && (System.nanoTime() > deadline || stopSignal.get())) {
+            timedOut = true;
+        }
+        if (timedOut) return 0;
+        if (ply > maxPly) maxPly = ply;
+
+        if (board.isGameOver()) {
+            // The previous move either won or filled the board
+            return board.getWinner() == GameEngine.TIE ? 0 : -(WIN_SCORE - ply);
+        }
+        if (depth == 0) return evaluate(board);
+
+        long key = board.getHash() ^ keySalt ^ variantSalt;
+        int ttMove = -1;
+        long data = cache.probe(key);
+        if (data == 0) {
+            ttMisses++;
+        } else {
+            ttHits++;
+            ttMove = SearchCache.move(data);
+            int ttDepth = SearchCache.depth(data);
+            int flag = SearchCache.bound(data);
+            int ttScore = fromTableScore(SearchCache.score(data), ply);
+            if ((exactDepthHits ? ttDepth == depth : ttDepth >= depth) && ply > 0) {
+                if (flag == EXACT) return ttScore;
+                if (flag == LOWER && ttScore >= beta) return ttScore;
+                if (flag == UPPER && ttScore <= alpha) return ttScore;
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = generateMoves(board, moves);
+        orderMoves(moves, scores, count, ttMove);
+
+        int alphaOrig = alpha;
+        int best = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            board.play(move);
+            int score = -negamax(board, depth - 1, ply + 1, -beta, -alpha);
+            board.undo();
+            if (timedOut) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                cutoffs++;
+                history[move] += depth * depth;
+                break;
+            }
+        }
+        if (ply == 0) rootBestMove = bestMove;
+
+        int flag = best <= alphaOrig ? UPPER : best >= beta ? LOWER : EXACT;
+        cache.store(key, toTableScore(best, ply), flag, depth, bestMove, generation);
+        return best;
+    }
+
+    // Mate scores are stored relative to the node so they stay valid at any ply
+    private static int toTableScore(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    // On small boards every empty cell is a candidate; on larger ones only cells
+    // within two steps of an existing stone are worth searching
+    public static int generateMoves(GridBoard board, int[] out) {
+        int size = board.getSize();
+        int cells = board.getCellCount();
+        int count = 0;
+        if (cells <= 25 || board.getMoveCount() == 0) {
+            if (board.getMoveCount() == 0 && cells > 25) {
+                out[0] = (size / 2) * size + size / 2;
+                return 1;
+            }
+            for (int cell = 0; cell < cells; cell++) {
+                if (board.isEmpty(cell)) out[count++] = cell;
+            }
+            return count;
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (board.isEmpty(cell) && hasNeighbour(board, cell / size, cell % size, size)) {
+                out[count++] = cell;
+            }
+        }
+        return count;
+    }
+
+    private static boolean hasNeighbour(GridBoard board, int row, int col, int size) {
+        for (int r = Math.max(0, row - 2); r <= Math.min(size - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(size - 1, col + 2); c++) {
+                if (!board.isEmpty(r * size + c)) return true;
+            }
+        }
+        return false;
+    }
+
+    // Table move first, then by history score (insertion sort; move lists are short)
+    private void orderMoves(int[] moves, int[] scores, int count, int ttMove) {
+        for (int i = 0; i < count; i++) {
+            scores[i] = moves[i] == ttMove ? Integer.MAX_VALUE : history[moves[i]];
+        }
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    // Sum over every K-cell window that only one side occupies, weighted by how full it is
+    int evaluate(GridBoard board) {
+        int size = board.getSize();
+        int k = board.getWinLength();
+        int total = 0;
+        for (int d = 0; d < 4; d++) {
+            int dr = GridBoard.rowStep(d);
+            int dc = GridBoard.colStep(d);
+            for (int row = 0; row < size; row++) {
+                int endRow = row + dr * (k - 1);
+                if (endRow >= size) continue;
+                for (int col = 0; col < size; col++) {
+                    int endCol = col + dc * (k - 1);
+                    if (endCol < 0 || endCol >= size) continue;
+                    int xCount = 0;
+                    int oCount = 0;
+                    for (int i = 0; i < k; i++) {
+                        int owner = board.owner((row + i * dr) * size + col + i * dc);
+                        if (owner == GameEngine.X) xCount++;
+                        else if (owner == GameEngine.O) oCount++;
+                    }
+                    if (oCount == 0) total += windowWeights[xCount];
+                    else if (xCount == 0) total -= windowWeights[oCount];
+                }
+            }
+        }
+        return board.currentPlayer() == GameEngine.X ? total : -total;
+    }
+}
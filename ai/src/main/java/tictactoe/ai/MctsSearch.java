@@ -0,0 +1,301 @@
+package tictactoe.ai;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// Monte Carlo tree search with UCT selection and random playouts, as an
+// alternative to alpha-beta on boards too large to search exhaustively.
+//
+// Root-parallel through UctDriver: each thread grows its own UctTree from the
+// same position with its own random stream, and the root visit counts are
+// summed to pick the move. Without a pool it searches on the calling thread.
+// Playouts run on long bitboards with precomputed win windows on boards of up
+// to 64 cells, and on a byte array with a line scan above that.
+public final class MctsSearch {
+    public static final int DEFAULT_POOL_NODES = 1 << 18;
+
+    private final GridTree[] trees;
+    private final UctDriver<GridBoard> driver;
+    private boolean treeReuse;
+
+    public MctsSearch(ForkJoinPool pool, int threads) {
+        this(pool, threads, DEFAULT_POOL_NODES, 1);
+    }
+
+    // pool may be null to grow the trees on the calling thread
+    public MctsSearch(ForkJoinPool pool, int threads, int poolNodes, long seed) {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        this.trees = new GridTree[threads];
+        for (int i = 0; i < threads; i++) {
+            trees[i] = new GridTree(poolNodes);
+        }
+        this.driver = new UctDriver<>(pool, trees, seed);
+    }
+
+    // Restarts the random streams, as if constructed with this seed
+    public void setSeed(long seed) {
+        driver.setSeed(seed);
+    }
+
+    // When on, a search whose position follows from the previous root keeps that
+    // subtree instead of starting over
+    public void setTreeReuse(boolean treeReuse) {
+        this.treeReuse = treeReuse;
+        for (GridTree tree : trees) tree.reuse = treeReuse;
+    }
+
+    public boolean isTreeReuse() {
+        return treeReuse;
+    }
+
+    public int getThreads() {
+        return driver.getThreads();
+    }
+
+    public long getPlayouts() {
+        return driver.getPlayouts();
+    }
+
+    public long getElapsedNanos() {
+        return driver.getElapsedNanos();
+    }
+
+    // Nodes counts playouts, max ply the deepest tree descent
+    public SearchStats getStats() {
+        return driver.getStats();
+    }
+
+    public long playoutsPerSecond() {
+        return driver.playoutsPerSecond();
+    }
+
+    public void cancel() {
+        driver.cancel();
+    }
+
+    // Runs until either budget is spent (0 means no limit on that budget; at least
+    // one must be set) and returns the most visited root move, or -1 if the game is over
+    public int findBestMove(GridBoard board, int playoutBudget, long timeBudgetMillis) {
+        return driver.findBestMove(board, playoutBudget, timeBudgetMillis);
+    }
+
+    // As above, also stopping once stop is set, even if it was set before the search started
+    int findBestMove(GridBoard board, int playoutBudget, long timeBudgetMillis, AtomicBoolean stop) {
+        return driver.findBestMove(board, playoutBudget, timeBudgetMillis, stop);
+    }
+
+    // A tree over an N x N board, with the scratch state for its playouts
+    private static final class GridTree extends UctTree<GridBoard> {
+        boolean reuse;
+        private int[] rootMoves = new int[0]; // move list of the root position, to check reuse
+        private int rootMoveCount;
+        private Variant rootVariant;
+
+        private int[] empties = new int[0];
+        private byte[] cells = new byte[0];
+        private long[][] windows; // per cell, the K-in-a-row masks through it (boards of up to 64 cells)
+
+        GridTree(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        GridBoard copy(GridBoard board) {
+            return board.copy();
+        }
+
+        @Override
+        int moveSpace(GridBoard board) {
+            return board.getCellCount();
+        }
+
+        @Override
+        boolean isLegal(GridBoard board, int cell) {
+            return board.isEmpty(cell);
+        }
+
+        @Override
+        int currentPlayer(GridBoard board) {
+            return board.currentPlayer();
+        }
+
+        @Override
+        boolean isGameOver(GridBoard board) {
+            return board.isGameOver();
+        }
+
+        @Override
+        int getWinner(GridBoard board) {
+            return board.getWinner();
+        }
+
+        @Override
+        void play(GridBoard board, int cell) {
+            board.play(cell);
+        }
+
+        @Override
+        void undo(GridBoard board) {
+            board.undo();
+        }
+
+        @Override
+        int generateMoves(GridBoard board, int[] out) {
+            return GridSearch.generateMoves(board, out);
+        }
+
+        @Override
+        int prepare(GridBoard board) {
+            int cellCount = board.getCellCount();
+            if (cells.length != cellCount) {
+                empties = new int[cellCount];
+                cells = new byte[cellCount];
+            }
+            if (board.getVariant() != rootVariant) {
+                windows = cellCount <= 64 ? buildWindows(board.getSize(), board.getWinLength()) : null;
+                rootVariant = board.getVariant();
+                root = -1;
+            }
+
+            int reused = reuse ? descendToPosition(board) : -1;
+            if (reused < 0) reused = super.prepare(board);
+            if (rootMoves.length != cellCount) rootMoves = new int[cellCount];
+            rootMoveCount = board.getMoveCount();
+            for (int ply = 0; ply < rootMoveCount; ply++) rootMoves[ply] = board.getMove(ply);
+            return reused;
+        }
+
+        // The node for this position inside the previous tree, or -1 if it is not
+        // there or the pool is too full to keep growing it
+        private int descendToPosition(GridBoard board) {
+            if (root < 0 || used > capacity / 2 || board.getMoveCount() < rootMoveCount) return -1;
+            for (int ply = 0; ply < rootMoveCount; ply++) {
+                if (board.getMove(ply) != rootMoves[ply]) return -1;
+            }
+            int node = root;
+            for (int ply = rootMoveCount; ply < board.getMoveCount(); ply++) {
+                int found = -1;
+                for (int i = 0; i < childCount[node] && firstChild[node] >= 0; i++) {
+                    if (move[firstChild[node] + i] == board.getMove(ply)) found = firstChild[node] + i;
+                }
+                if (found < 0) return -1;
+                node = found;
+            }
+            return node;
+        }
+
+        // Plays random moves to the end of the game without touching the board
+        @Override
+        int playout(GridBoard board) {
+            int cellCount = board.getCellCount();
+            int count = 0;
+            long x = 0;
+            long o = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                int owner = board.owner(cell);
+                cells[cell] = (byte) owner;
+                if (owner == GameEngine.NONE) empties[count++] = cell;
+                else if (windows != null && owner == GameEngine.X) x |= 1L << cell;
+                else if (windows != null) o |= 1L << cell;
+            }
+            int player = board.currentPlayer();
+            int size = board.getSize();
+            int winLength = board.getWinLength();
+            while (count > 0) {
+                int pick = random.nextInt(count);
+                int cell = empties[pick];
+                empties[pick] = empties[--count];
+                if (windows != null) {
+                    long stones = player == GameEngine.X ? (x |= 1L << cell) : (o |= 1L << cell);
+                    for (long window : windows[cell]) {
+                        if ((stones & window) == window) return player;
+                    }
+                } else {
+                    cells[cell] = (byte) player;
+                    if (lineLength(cell, player, size) >= winLength) return player;
+                }
+                player = GameEngine.opponent(player);
+            }
+            return GameEngine.TIE;
+        }
+
+        private int lineLength(int cell, int player, int size) {
+            int row = cell / size;
+            int col = cell % size;
+            int best = 0;
+            for (int d = 0; d < 4; d++) {
+                int length = 1;
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    int r = row + sign * GridBoard.rowStep(d);
+                    int c = col + sign * GridBoard.colStep(d);
+                    while (r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == player) {
+                        length++;
+                        r += sign * GridBoard.rowStep(d);
+                        c += sign * GridBoard.colStep(d);
+                    }
+                }
+                if (length > best) best = length;
+            }
+            return best;
+        }
+
+        private static long[][] buildWindows(int size, int winLength) {
+            int[] counts = new int[size * size];
+            long[] all = new long[4 * size * size];
+            int total = 0;
+            for (int d = 0; d < 4; d++) {
+                for (int row = 0; row < size; row++) {
+                    for (int col = 0; col < size; col++) {
+                        int endRow = row + (winLength - 1) * GridBoard.rowStep(d);
+                        int endCol = col + (winLength - 1) * GridBoard.colStep(d);
+                        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) continue;
+                        long window = 0;
+                        for (int i = 0; i < winLength; i++) {
+                            int cell = (row + i * GridBoard.rowStep(d)) * size + col + i * GridBoard.colStep(d);
+                            window |= 1L << cell;
+                            counts[cell]++;
+                        }
+                        all[total++] = window;
+                    }
+                }
+            }
+            long[][] windows = new long[size * size][];
+            for (int cell = 0; cell < windows.length; cell++) {
+                windows[cell] = new long[counts[cell]];
+                counts[cell] = 0;
+            }
+            for (int i = 0; i < total; i++) {
+                for (long bits = all[i]; bits != 0; bits &= bits - 1) {
+                    int cell = Long.numberOfTrailingZeros(bits);
+                    windows[cell][counts[cell]++] = all[i];
+                }
+            }
+            return windows;
+        }
+    }
+
+    //   java tictactoe.ai.MctsSearch [--size 15] [--win 5] [--ms 1000] [--threads N] [--seed 1]
+    public static void main(String[] args) {
+        int size = 15;
+        int win = 5;
+        UctDriver.Options options = new UctDriver.Options();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (options.parse(args[i], args[i + 1])) continue;
+            switch (args[i]) {
+                case "--size": size = Integer.parseInt(args[i + 1]); break;
+                case "--win": win = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        GridBoard board = new GridBoard(Variant.of(size, win));
+        board.play(board.getCellCount() / 2);
+        MctsSearch search = new MctsSearch(ForkJoinPool.commonPool(), options.threads, DEFAULT_POOL_NODES,
+                options.seed);
+        int move = search.findBestMove(board, 0, options.millis);
+        System.out.println(search.driver.summary(move));
+    }
+}
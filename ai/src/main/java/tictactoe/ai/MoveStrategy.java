@@ -0,0 +1,92 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.PerfectPlayTable;
+import tictactoe.engine.Variant;
+
+// A way of choosing a 3x3 move from the bitboard position; used by the headless
+// tools, which play far too many games to go through the Swing class
+public interface MoveStrategy {
+    // Cell for the side to move; the position is never finished
+    int move(int xMask, int oMask, SplittableRandom random);
+
+    static MoveStrategy perfect() {
+        return (xMask, oMask, random) -> PerfectPlayTable.bestMove(xMask, oMask);
+    }
+
+    static MoveStrategy random() {
+        return (xMask, oMask, random) -> {
+            int empty = ~(xMask | oMask) & GameEngine.FULL;
+            for (int skip = random.nextInt(Integer.bitCount(empty)); skip > 0; skip--) {
+                empty &= empty - 1;
+            }
+            return Integer.numberOfTrailingZeros(empty);
+        };
+    }
+
+    static MoveStrategy depthLimited(int maxDepth) {
+        return (xMask, oMask, random) -> GameEngine.depthLimitedMove(xMask, oMask, maxDepth);
+    }
+
+    // The old findBestMove opening book: answer the first move with the centre, or a
+    // corner if the centre is taken; play perfectly after that
+    static MoveStrategy opening() {
+        return (xMask, oMask, random) -> {
+            int occupied = xMask | oMask;
+            if (Integer.bitCount(occupied) == 1) return (occupied & (1 << 4)) != 0 ? 0 : 4;
+            return PerfectPlayTable.bestMove(xMask, oMask);
+        };
+    }
+
+    // Single-threaded MCTS with a fixed playout budget, run on the calling thread; each
+    // thread gets its own tree, reseeded from the game's random before every move
+    static MoveStrategy mcts(int playouts) {
+        ThreadLocal<MctsSearch> searches = ThreadLocal.withInitial(() ->
+                new MctsSearch(null, 1, Math.max(1024, playouts * 2), 1));
+        ThreadLocal<GridBoard> boards = ThreadLocal.withInitial(() -> new GridBoard(Variant.CLASSIC));
+        return (xMask, oMask, random) -> {
+            GridBoard board = boards.get();
+            board.reset();
+            // Alternate X and O stones; the order does not matter for an unfinished position
+            for (int x = xMask, o = oMask; x != 0 || o != 0; ) {
+                board.play(Integer.numberOfTrailingZeros(x));
+                x &= x - 1;
+                if (o != 0) {
+                    board.play(Integer.numberOfTrailingZeros(o));
+                    o &= o - 1;
+                }
+            }
+            MctsSearch search = searches.get();
+            search.setSeed(random.nextLong());
+            return search.findBestMove(board, playouts, 0);
+        };
+    }
+
+    static MoveStrategy difficulty(Difficulty level) {
+        return level::chooseMove;
+    }
+
+    // perfect, random, opening, easy, medium, hard, depthN (for example depth2)
+    // or mctsN (for example mcts1000)
+    static MoveStrategy named(String name) {
+        switch (name) {
+            case "perfect": return perfect();
+            case "random": return random();
+            case "opening": return opening();
+            case "easy": return difficulty(Difficulty.EASY);
+            case "medium": return difficulty(Difficulty.MEDIUM);
+            case "hard": return difficulty(Difficulty.HARD);
+            default:
+                if (name.startsWith("depth")) {
+                    return depthLimited(Integer.parseInt(name.substring("depth".length())));
+                }
+                if (name.startsWith("mcts")) {
+                    return mcts(Integer.parseInt(name.substring("mcts".length())));
+                }
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package tictactoe.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// Root-split alpha-beta on a ForkJoinPool. The first root move is searched on
+// its own to get a bound; the remaining moves are then searched in parallel
+// against that bound. Every task starts from a clean search state, salts its
+// table keys with its own root move and only takes table entries stored at
+// exactly the depth it needs, so neither sibling tasks nor other searches
+// sharing the table can change its score: the move and score for a given
+// position and depth are the same for any thread count.
+public final class ParallelSearch {
+    private final ForkJoinPool pool;
+    private final SearchStats stats = new SearchStats();
+    private final ThreadLocal<GridSearch> searchers = ThreadLocal.withInitial(GridSearch::new);
+    // Each search has its own stop signal, so cancelling one never leaks into the next
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    private long elapsedNanos;
+    private int bestScore;
+    private int completedDepth;
+
+    public ParallelSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public long getNodes() {
+        return stats.nodes;
+    }
+
+    // Counters for the last search, over all threads
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Stops a running search; it returns the best move of the last finished depth
+    public void cancel() {
+        stopSignal.set(true);
+    }
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : stats.nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    // Fixed-depth search; returns the best cell, or -1 if the game is over or the
+    // search was cancelled
+    public int search(GridBoard board, int depth) {
+        long start = System.nanoTime();
+        AtomicBoolean stop = new AtomicBoolean();
+        stopSignal = stop;
+        stats.reset();
+        int move = search(board, depth, Long.MAX_VALUE, SearchCache.shared().newSearch(), stop);
+        // A cancelled iteration did not finish the depth
+        completedDepth = move >= 0 ? depth : 0;
+        elapsedNanos = System.nanoTime() - start;
+        return move;
+    }
+
+    // Iterative deepening until the time budget runs out
+    public int findBestMove(GridBoard board, long timeBudgetMillis) {
+        return findBestMove(board, timeBudgetMillis, new AtomicBoolean());
+    }
+
+    // As above, also stopping once stop is set, even if it was set before the search started
+    int findBestMove(GridBoard board, long timeBudgetMillis, AtomicBoolean stop) {
+        if (board.isGameOver()) return -1;
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+        stopSignal = stop;
+        stats.reset();
+        int generation = SearchCache.shared().newSearch();
+        completedDepth = 0;
+
+        int[] rootMoves = new int[board.getCellCount()];
+        GridSearch.generateMoves(board, rootMoves);
+        int bestMove = rootMoves[0];
+        int score = 0;
+        int depthLimit = board.getCellCount() - board.getMoveCount();
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            int move = search(board, depth, deadline, generation, stop);
+            if (move < 0) break;
+            bestMove = move;
+            score = bestScore;
+            completedDepth = depth;
+            if (Math.abs(score) >= GridSearch.MATE_BOUND) break;
+        }
+        bestScore = score;
+        elapsedNanos = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    // Returns -1 if the deadline passed or stop was set before the depth was finished
+    private int search(GridBoard board, int depth, long deadline, int generation, AtomicBoolean stop) {
+        if (board.isGameOver()) return -1;
+        GridSearch first = searchers.get();
+        int[] moves = new int[board.getCellCount()];
+        int count = GridSearch.generateMoves(board, moves);
+
+        int alpha = first.searchMove(board, moves[0], depth, -GridSearch.INFINITY, GridSearch.INFINITY, deadline,
+                salt(depth, 0), generation, stop);
+        first.addTo(stats);
+        if (first.isTimedOut()) return -1;
+        if (count == 1 || alpha >= GridSearch.MATE_BOUND) {
+            bestScore = alpha;
+            return moves[0];
+        }
+
+        List<RootTask> tasks = new ArrayList<>(count - 1);
+        for (int i = 1; i < count; i++) {
+            tasks.add(new RootTask(board.copy(), moves[i], depth, alpha, deadline, salt(depth, i), generation, stop));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        int bestMove = moves[0];
+        int best = alpha;
+        for (RootTask task : tasks) {
+            stats.add(task.stats);
+            if (task.timedOut) return -1;
+            // Only a move that beats the bound has an exact score; ties keep the earlier move
+            if (task.score > best) {
+                best = task.score;
+                bestMove = task.move;
+            }
+        }
+        bestScore = best;
+        return bestMove;
+    }
+
+    // Table key salt for the root move at this index of a search to this depth
+    static long salt(int depth, int index) {
+        return depth * 0x9E3779B97F4A7C15L + index;
+    }
+
+    private final class RootTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final GridBoard board;
+        private final int move;
+        private final int depth;
+        private final int alpha;
+        private final long deadline;
+        private final long salt;
+        private final int generation;
+        private final AtomicBoolean stop;
+        private final SearchStats stats = new SearchStats();
+        private int score;
+        private boolean timedOut;
+
+        RootTask(GridBoard board, int move, int depth, int alpha, long deadline, long salt, int generation,
+                AtomicBoolean stop) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.deadline = deadline;
+            this.salt = salt;
+            this.generation = generation;
+            this.stop = stop;
+        }
+
+        @Override
+        protected Integer compute() {
+            GridSearch searcher = searchers.get();
+            score = searcher.searchMove(board, move, depth, alpha, GridSearch.INFINITY, deadline, salt, generation,
+                    stop);
+            searcher.addTo(stats);
+            timedOut = searcher.isTimedOut();
+            return score;
+        }
+    }
+
+    // Reports nodes/sec and speedup for 1, 2, 4, ... threads on a fixed position:
+    //   java ParallelSearch [size] [winLength] [depth] [maxThreads]
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+        int winLength = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        GridBoard board = new GridBoard(Variant.of(size, winLength));
+        int center = (size / 2) * size + size / 2;
+        board.play(center);
+        if (size > 3) board.play(center + 1);
+
+        // Warm up the JIT so the single-thread baseline is not penalised
+        ForkJoinPool warmup = new ForkJoinPool(1);
+        new ParallelSearch(warmup).search(board, depth);
+        warmup.shutdown();
+
+        System.out.println("threads,move,score,nodes,millis,nodesPerSec,speedup");
+        double baseline = 0;
+        int expectedMove = -2;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                // Every run starts from an empty cache, or later runs would reuse earlier ones' entries
+                SearchCache.shared().clear();
+                ParallelSearch search = new ParallelSearch(pool);
+                int move = search.search(board, depth);
+                double millis = search.getElapsedNanos() / 1e6;
+                if (threads == 1) {
+                    baseline = millis;
+                    expectedMove = move;
+                } else if (move != expectedMove) {
+                    throw new IllegalStateException("Move changed with " + threads + " threads");
+                }
+                System.out.printf("%d,%d,%d,%d,%.1f,%d,%.2f%n", threads, move, search.getBestScore(),
+                        search.getNodes(), millis, search.nodesPerSecond(), baseline / millis);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        System.out.println(SearchCache.shared());
+    }
+}
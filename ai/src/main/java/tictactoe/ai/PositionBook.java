@@ -0,0 +1,127 @@
+package tictactoe.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SortedMap;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Symmetry;
+import tictactoe.engine.Variant;
+
+// Precomputed positions for one variant, looked up by canonical hash in a
+// read-only memory mapping: opening a file is a map call, not a parse, and the
+// entries never land on the heap. The same format holds the opening book
+// (searched moves near the start) and the endgame tablebase (exact results
+// with few empty cells). Moves are stored for the canonical image of the
+// position and mapped back through the symmetry when probed.
+//
+// Header (32 bytes): magic, kind, size, win length, entry count, reserved
+// Entry (16 bytes):  canonical hash, score, move, depth, flags
+// Entries are sorted by hash (signed order) for binary search.
+public final class PositionBook {
+    public static final int OPENING = 1;
+    public static final int ENDGAME = 2;
+    public static final int NO_MOVE = -1;
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    // Entry flag: the score is the game-theoretic value, not a search estimate
+    public static final int EXACT = 1;
+
+    private static final long MAGIC = 0x545454424F4F4B31L; // "TTTBOOK1"
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int kind;
+    private final int size;
+    private final int winLength;
+    private final int count;
+
+    private PositionBook(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IOException("Not a position book");
+        }
+        this.kind = buffer.getInt(8);
+        this.size = buffer.getInt(12);
+        this.winLength = buffer.getInt(16);
+        this.count = buffer.getInt(20);
+        if (count < 0 || HEADER_BYTES + (long) count * ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Position book is truncated");
+        }
+    }
+
+    public static PositionBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new PositionBook(buffer);
+        }
+    }
+
+    // Writes entries keyed by canonical hash; each value is {move, score, depth, flags}
+    // with the move in the canonical frame
+    public static void write(Path path, int kind, Variant variant, SortedMap<Long, int[]> entries) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + entries.size() * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(MAGIC).putInt(kind).putInt(variant.getSize()).putInt(variant.getWinLength())
+                .putInt(entries.size()).putLong(0);
+        for (Map.Entry<Long, int[]> entry : entries.entrySet()) {
+            int[] value = entry.getValue();
+            out.putLong(entry.getKey()).putInt(value[1]).putShort((short) value[0])
+                    .put((byte) value[2]).put((byte) value[3]);
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) channel.write(out);
+        }
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean matches(Variant variant) {
+        return variant.getSize() == size && variant.getWinLength() == winLength;
+    }
+
+    // Book move for the position in the board's own orientation, or NO_MOVE
+    public int probe(GridBoard board) {
+        int t = board.canonicalSymmetry();
+        int entry = find(board.symmetricHash(t));
+        if (entry < 0) return NO_MOVE;
+        int move = buffer.getShort(entry + 12);
+        return Symmetry.cellMaps(size)[Symmetry.inverse(t)][move];
+    }
+
+    // Stored score for the side to move (GridSearch scale), or NO_SCORE
+    public int probeScore(GridBoard board) {
+        int entry = find(board.canonicalHash());
+        return entry < 0 ? NO_SCORE : buffer.getInt(entry + 8);
+    }
+
+    // Byte offset of the entry with this hash, or -1
+    private int find(long hash) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if (key < hash) low = mid + 1;
+            else if (key > hash) high = mid - 1;
+            else return HEADER_BYTES + mid * ENTRY_BYTES;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,202 @@
+package tictactoe.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size transposition table shared by every GridSearch in the process.
+// Each slot is two longs, (key ^ data) and data, written without locks: two
+// threads storing into the same slot at once can leave a mismatched pair,
+// which then fails the XOR check and reads as a miss instead of a wrong
+// entry. The memory cap is set once (-Dttt.cacheMb, default 32) and never
+// grows. Depth-preferred replacement keeps the deeper entry unless the old
+// one is stale; always-replace keeps the newest.
+//
+// Every search takes its own generation from newSearch() and stores it in its
+// entries. Searches run side by side, so an entry is only stale once it is
+// LIVE_GENERATIONS or more searches older (or newer) than the storing one; a
+// shallow search never evicts the deep entries of one running next to it.
+public final class SearchCache {
+    public static final int DEPTH_PREFERRED = 0;
+    public static final int ALWAYS_REPLACE = 1;
+
+    public static final int DEFAULT_MB = 32;
+    static final int MAX_MB = 8192;
+
+    // Data word: bits 0-15 move + 1 (never 0 once stored), 16-23 depth, 24-25 bound,
+    // 26-31 search generation, 32-63 score
+    private static final int DEPTH_SHIFT = 16;
+    private static final int GENERATION_SHIFT = 26;
+    private static final int GENERATION_MASK = 0x3F;
+    private static final int LIVE_GENERATIONS = 8;
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int OCCUPANCY_SAMPLE = 1 << 16;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static volatile SearchCache shared;
+
+    private final long[] slots;
+    private final int mask;
+    private final int policy;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger generations = new AtomicInteger();
+
+    public SearchCache(int megabytes, int policy) {
+        if (megabytes < 1 || megabytes > MAX_MB) {
+            throw new IllegalArgumentException("Cache size must be between 1 and " + MAX_MB + " MB");
+        }
+        if (policy != DEPTH_PREFERRED && policy != ALWAYS_REPLACE) {
+            throw new IllegalArgumentException("Unknown replacement policy: " + policy);
+        }
+        // Largest power of two number of entries that fits in the cap
+        long entries = Long.highestOneBit((long) megabytes * (1 << 20) / BYTES_PER_ENTRY);
+        this.slots = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+        this.policy = policy;
+    }
+
+    // The process-wide cache, sized by -Dttt.cacheMb and -Dttt.cacheReplace=depth|always
+    // on first use
+    public static SearchCache shared() {
+        SearchCache cache = shared;
+        if (cache == null) {
+            synchronized (SearchCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    int megabytes = Integer.getInteger("ttt.cacheMb", DEFAULT_MB);
+                    String replace = System.getProperty("ttt.cacheReplace", "depth");
+                    cache = new SearchCache(megabytes, replace.equals("always") ? ALWAYS_REPLACE : DEPTH_PREFERRED);
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    // The shared cache if a search has created it, for reporting without allocating it
+    static SearchCache sharedIfCreated() {
+        return shared;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getMegabytes() {
+        return (long) getCapacity() * BYTES_PER_ENTRY >> 20;
+    }
+
+    public int getPolicy() {
+        return policy;
+    }
+
+    // Generation for a search starting now, to pass to every store it makes
+    public int newSearch() {
+        return generations.incrementAndGet() & GENERATION_MASK;
+    }
+
+    // The newest generation, for short searches that ride along with it instead of
+    // starting their own
+    int currentGeneration() {
+        return generations.get() & GENERATION_MASK;
+    }
+
+    // Whether an entry of the given generation is too far from the storer's to still
+    // belong to a search that may be running
+    private static boolean isStale(int entryGeneration, int generation) {
+        int age = (generation - entryGeneration) & GENERATION_MASK;
+        return age >= LIVE_GENERATIONS && age <= GENERATION_MASK + 1 - LIVE_GENERATIONS;
+    }
+
+    private static long pack(int score, int bound, int depth, int move) {
+        return ((long) score << 32) | ((long) bound << 24) | ((long) Math.min(depth, 255) << DEPTH_SHIFT) | (move + 1);
+    }
+
+    static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> 24) & 0x3;
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    static int move(long data) {
+        return (int) (data & 0xFFFF) - 1;
+    }
+
+    // Data stored for the key, or 0 if the slot holds another position or a torn write
+    long probe(long key) {
+        int slot = ((int) key & mask) << 1;
+        long data = (long) SLOTS.getOpaque(slots, slot + 1);
+        long check = (long) SLOTS.getOpaque(slots, slot);
+        return data != 0 && (check ^ data) == key ? data : 0;
+    }
+
+    void store(long key, int score, int bound, int depth, int move, int generation) {
+        int slot = ((int) key & mask) << 1;
+        if (policy == DEPTH_PREFERRED) {
+            long old = (long) SLOTS.getOpaque(slots, slot + 1);
+            long oldKey = (long) SLOTS.getOpaque(slots, slot) ^ old;
+            boolean stale = isStale((int) (old >>> GENERATION_SHIFT) & GENERATION_MASK, generation);
+            if (old != 0 && oldKey != key && !stale && depth(old) > depth) return;
+        }
+        long data = pack(score, bound, depth, move) | ((long) generation << GENERATION_SHIFT);
+        SLOTS.setOpaque(slots, slot, key ^ data);
+        SLOTS.setOpaque(slots, slot + 1, data);
+    }
+
+    // Probe counts from one finished search
+    void record(long hitCount, long missCount) {
+        hits.add(hitCount);
+        misses.add(missCount);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long probes = hitCount + misses.sum();
+        return probes == 0 ? 0 : (double) hitCount / probes;
+    }
+
+    // Fraction of slots in use, estimated from an even sample of at most 65536 slots
+    public double getOccupancy() {
+        int entries = getCapacity();
+        int step = Math.max(1, entries / OCCUPANCY_SAMPLE);
+        int sampled = 0;
+        int used = 0;
+        for (int entry = 0; entry < entries; entry += step) {
+            sampled++;
+            if ((long) SLOTS.getOpaque(slots, (entry << 1) + 1) != 0) used++;
+        }
+        return (double) used / sampled;
+    }
+
+    // Empties the cache for every search sharing it
+    public void clear() {
+        Arrays.fill(slots, 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d MB %s cache, %.0f%% full, %.0f%% hits", getMegabytes(),
+                policy == DEPTH_PREFERRED ? "depth-preferred" : "always-replace", getOccupancy() * 100,
+                getHitRate() * 100);
+    }
+}
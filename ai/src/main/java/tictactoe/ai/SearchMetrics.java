@@ -0,0 +1,180 @@
+package tictactoe.ai;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide search metrics. Searches keep plain per-instance counters and
+// hand them over once per move, so the search loop itself never touches
+// shared state. Collection is off unless the JVM is started with
+// -Dttt.metrics=true; the flag is a static final, so the JIT folds disabled
+// calls away. When enabled, the metrics are registered as the MXBean
+// tictactoe:type=SearchMetrics.
+public final class SearchMetrics implements SearchMetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("ttt.metrics");
+
+    // Bucket i counts moves that took less than 2^i microseconds
+    private static final int BUCKETS = 40;
+
+    private static final SearchMetrics INSTANCE = new SearchMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(INSTANCE, new ObjectName("tictactoe:type=SearchMetrics"));
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not register search metrics", e);
+            }
+        }
+    }
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder ttHits = new LongAdder();
+    private final LongAdder ttMisses = new LongAdder();
+    private final LongAccumulator maxPly = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+    private volatile double lastBranchingFactor;
+
+    private SearchMetrics() {
+    }
+
+    public static SearchMetrics get() {
+        return INSTANCE;
+    }
+
+    // Records one AI move; stats may be null for moves that needed no search. depth is
+    // the last finished alpha-beta depth, or 0 for searches without one (MCTS), which
+    // then leave the branching factor alone
+    public static void recordMove(SearchStats stats, int depth, long elapsedNanos) {
+        if (!ENABLED) return;
+        INSTANCE.record(stats, depth, elapsedNanos);
+    }
+
+    private void record(SearchStats stats, int depth, long elapsedNanos) {
+        moves.increment();
+        if (stats != null) {
+            nodes.add(stats.getNodes());
+            cutoffs.add(stats.getCutoffs());
+            ttHits.add(stats.getTtHits());
+            ttMisses.add(stats.getTtMisses());
+            maxPly.accumulate(stats.getMaxPly());
+            if (depth > 0) lastBranchingFactor = stats.effectiveBranchingFactor(depth);
+        }
+        maxLatencyNanos.accumulate(elapsedNanos);
+        long micros = Math.max(1, elapsedNanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    @Override
+    public long getTtHits() {
+        return ttHits.sum();
+    }
+
+    @Override
+    public long getTtMisses() {
+        return ttMisses.sum();
+    }
+
+    @Override
+    public double getTtHitRate() {
+        long hits = ttHits.sum();
+        long probes = hits + ttMisses.sum();
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    // The shared SearchCache, or 0 before any search has created it
+    @Override
+    public double getCacheOccupancy() {
+        SearchCache cache = SearchCache.sharedIfCreated();
+        return cache == null ? 0 : cache.getOccupancy();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        SearchCache cache = SearchCache.sharedIfCreated();
+        return cache == null ? 0 : cache.getHitRate();
+    }
+
+    @Override
+    public int getMaxPly() {
+        return (int) maxPly.get();
+    }
+
+    @Override
+    public double getLastEffectiveBranchingFactor() {
+        return lastBranchingFactor;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return percentileMillis(0.50);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return percentileMillis(0.99);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    // Upper edge of the histogram bucket holding the percentile
+    private double percentileMillis(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += latencyBuckets.get(i);
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= rank) return (1L << i) / 1000.0;
+        }
+        return getLatencyMaxMillis();
+    }
+
+    @Override
+    public void reset() {
+        moves.reset();
+        nodes.reset();
+        cutoffs.reset();
+        ttHits.reset();
+        ttMisses.reset();
+        maxPly.reset();
+        maxLatencyNanos.reset();
+        for (int i = 0; i < BUCKETS; i++) latencyBuckets.set(i, 0);
+        lastBranchingFactor = 0;
+    }
+
+    // One-line summary for the debug overlay
+    public String summary() {
+        return String.format("moves %d | nodes %,d | cutoffs %,d | TT %.0f%% (%.0f%% full) | ply %d | EBF %.1f"
+                + " | p50 %.1fms p99 %.1fms",
+                getMoves(), getNodes(), getCutoffs(), getTtHitRate() * 100, getCacheOccupancy() * 100, getMaxPly(),
+                getLastEffectiveBranchingFactor(), getLatencyP50Millis(), getLatencyP99Millis());
+    }
+}
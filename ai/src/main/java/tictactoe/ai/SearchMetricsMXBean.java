@@ -0,0 +1,32 @@
+package tictactoe.ai;
+
+// Totals over every AI move since startup, as seen by JMX clients such as jconsole
+public interface SearchMetricsMXBean {
+    long getMoves();
+
+    long getNodes();
+
+    long getCutoffs();
+
+    long getTtHits();
+
+    long getTtMisses();
+
+    double getTtHitRate();
+
+    double getCacheOccupancy();
+
+    double getCacheHitRate();
+
+    int getMaxPly();
+
+    double getLastEffectiveBranchingFactor();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,57 @@
+package tictactoe.ai;
+
+// Counters for one AI move, summed over every search thread that worked on it
+public final class SearchStats {
+    long nodes;
+    long cutoffs;
+    long ttHits;
+    long ttMisses;
+    int maxPly;
+
+    void reset() {
+        nodes = 0;
+        cutoffs = 0;
+        ttHits = 0;
+        ttMisses = 0;
+        maxPly = 0;
+    }
+
+    void add(SearchStats other) {
+        nodes += other.nodes;
+        cutoffs += other.cutoffs;
+        ttHits += other.ttHits;
+        ttMisses += other.ttMisses;
+        maxPly = Math.max(maxPly, other.maxPly);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getTtHits() {
+        return ttHits;
+    }
+
+    public long getTtMisses() {
+        return ttMisses;
+    }
+
+    // Deepest ply reached, including positions that ended the game early
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    public double ttHitRate() {
+        long probes = ttHits + ttMisses;
+        return probes == 0 ? 0 : (double) ttHits / probes;
+    }
+
+    // The branching factor b for which b^depth equals the nodes searched
+    public double effectiveBranchingFactor(int depth) {
+        return depth <= 0 || nodes <= 1 ? 0 : Math.pow(nodes, 1.0 / depth);
+    }
+}
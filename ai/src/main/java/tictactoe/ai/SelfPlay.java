@@ -0,0 +1,231 @@
+package tictactoe.ai;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GameLog;
+
+// Headless self-play tournament. Every ordered pair of strategies plays the
+// requested number of 3x3 games, split into batches that run in parallel.
+// After each batch a cumulative result line is printed, as CSV or JSON lines.
+// Games are played on two int masks, so a game allocates nothing. With --log
+// every game is also appended to a GameLog, a chunk of records at a time.
+//
+//   java tictactoe.ai.SelfPlay --players perfect,depth2,random,opening --games 1000000
+//       [--threads N] [--batch 100000] [--format csv|json] [--seed 1] [--log games.log]
+public final class SelfPlay {
+    private static final int LOG_CHUNK = 8192;
+
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final long seed;
+    private final GameLog log; // null when games are not recorded
+
+    public SelfPlay(ExecutorService executor, int batchSize, long seed) {
+        this(executor, batchSize, seed, null);
+    }
+
+    public SelfPlay(ExecutorService executor, int batchSize, long seed, GameLog log) {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.seed = seed;
+        this.log = log;
+    }
+
+    // Plays one game and returns X, O or TIE
+    public static int playGame(MoveStrategy x, MoveStrategy o, SplittableRandom random) {
+        int xMask = 0;
+        int oMask = 0;
+        while (true) {
+            xMask |= 1 << x.move(xMask, oMask, random);
+            if (GameEngine.hasLine(xMask)) return GameEngine.X;
+            if ((xMask | oMask) == GameEngine.FULL) return GameEngine.TIE;
+            oMask |= 1 << o.move(xMask, oMask, random);
+            if (GameEngine.hasLine(oMask)) return GameEngine.O;
+        }
+    }
+
+    // Like playGame, but returns the whole game as a GameLog record
+    public static long playRecordedGame(MoveStrategy x, MoveStrategy o, SplittableRandom random) {
+        int xMask = 0;
+        int oMask = 0;
+        long moves = 0;
+        int ply = 0;
+        while (true) {
+            int cell = x.move(xMask, oMask, random);
+            xMask |= 1 << cell;
+            moves |= (long) cell << (4 * ply++);
+            if (GameEngine.hasLine(xMask)) return GameLog.record(moves, ply, GameEngine.X);
+            if ((xMask | oMask) == GameEngine.FULL) return GameLog.record(moves, ply, GameEngine.TIE);
+            cell = o.move(xMask, oMask, random);
+            oMask |= 1 << cell;
+            moves |= (long) cell << (4 * ply++);
+            if (GameEngine.hasLine(oMask)) return GameLog.record(moves, ply, GameEngine.O);
+        }
+    }
+
+    // Plays the games for one pairing and reports cumulative counts after each batch
+    public Result playMatch(String xName, String oName, long games, PrintStream out, boolean json)
+            throws InterruptedException {
+        MoveStrategy x = MoveStrategy.named(xName);
+        MoveStrategy o = MoveStrategy.named(oName);
+        SplittableRandom master = new SplittableRandom(seed ^ ((long) xName.hashCode() << 32 | (oName.hashCode() & 0xFFFFFFFFL)));
+
+        List<Future<long[]>> batches = new ArrayList<>();
+        for (long start = 0; start < games; start += batchSize) {
+            int count = (int) Math.min(batchSize, games - start);
+            SplittableRandom random = master.split();
+            batches.add(executor.submit(() -> log == null
+                    ? playBatch(x, o, count, random)
+                    : playLoggedBatch(x, o, count, random, log)));
+        }
+
+        Result result = new Result(xName, oName);
+        long started = System.nanoTime();
+        for (Future<long[]> batch : batches) {
+            long[] counts;
+            try {
+                counts = batch.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Self-play batch failed", e.getCause());
+            }
+            result.xWins += counts[0];
+            result.oWins += counts[1];
+            result.ties += counts[2];
+            result.elapsedNanos = System.nanoTime() - started;
+            out.println(json ? result.toJson() : result.toCsv());
+        }
+        return result;
+    }
+
+    private static long[] playBatch(MoveStrategy x, MoveStrategy o, int games, SplittableRandom random) {
+        long xWins = 0;
+        long oWins = 0;
+        long ties = 0;
+        for (int i = 0; i < games; i++) {
+            int winner = playGame(x, o, random);
+            if (winner == GameEngine.X) xWins++;
+            else if (winner == GameEngine.O) oWins++;
+            else ties++;
+        }
+        return new long[] {xWins, oWins, ties};
+    }
+
+    private static long[] playLoggedBatch(MoveStrategy x, MoveStrategy o, int games, SplittableRandom random,
+                                          GameLog log) {
+        long[] counts = new long[3];
+        long[] chunk = new long[Math.min(games, LOG_CHUNK)];
+        int buffered = 0;
+        try {
+            for (int i = 0; i < games; i++) {
+                long record = playRecordedGame(x, o, random);
+                counts[GameLog.result(record) - 1]++;
+                chunk[buffered++] = record;
+                if (buffered == chunk.length) {
+                    log.append(chunk, buffered);
+                    buffered = 0;
+                }
+            }
+            log.append(chunk, buffered);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return counts;
+    }
+
+    public static final class Result {
+        public static final String CSV_HEADER = "x,o,games,xWins,oWins,ties,gamesPerSec";
+
+        private final String x;
+        private final String o;
+        private long xWins;
+        private long oWins;
+        private long ties;
+        private long elapsedNanos;
+
+        Result(String x, String o) {
+            this.x = x;
+            this.o = o;
+        }
+
+        public long getXWins() {
+            return xWins;
+        }
+
+        public long getOWins() {
+            return oWins;
+        }
+
+        public long getTies() {
+            return ties;
+        }
+
+        public long getGames() {
+            return xWins + oWins + ties;
+        }
+
+        public long gamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1_000_000_000L / elapsedNanos;
+        }
+
+        String toCsv() {
+            return x + "," + o + "," + getGames() + "," + xWins + "," + oWins + "," + ties + "," + gamesPerSecond();
+        }
+
+        String toJson() {
+            return "{\"x\":\"" + x + "\",\"o\":\"" + o + "\",\"games\":" + getGames() + ",\"xWins\":" + xWins
+                    + ",\"oWins\":" + oWins + ",\"ties\":" + ties + ",\"gamesPerSec\":" + gamesPerSecond() + "}";
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String players = "perfect,depth2,random,opening";
+        long games = 1_000_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = 100_000;
+        boolean json = false;
+        long seed = 1;
+        String logFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--players": players = args[i + 1]; break;
+                case "--games": games = Long.parseLong(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--batch": batch = Integer.parseInt(args[i + 1]); break;
+                case "--format": json = args[i + 1].equals("json"); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--log": logFile = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        String[] names = players.split(",");
+        for (String name : names) MoveStrategy.named(name);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        GameLog log = logFile == null ? null : GameLog.open(Paths.get(logFile));
+        try {
+            SelfPlay selfPlay = new SelfPlay(executor, batch, seed, log);
+            if (!json) System.out.println(Result.CSV_HEADER);
+            for (String x : names) {
+                for (String o : names) {
+                    selfPlay.playMatch(x, o, games, System.out, json);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            if (log != null) log.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Root-parallel driver for UctTrees: each tree grows from its own copy of the
+// position with its own random stream, and the root visit counts are summed
+// to pick the move. Without a pool the trees grow one after another on the
+// calling thread. MctsSearch and UltimateSearch are this driver over their
+// own trees.
+final class UctDriver<P> {
+    private final ForkJoinPool pool;
+    private final UctTree<P>[] trees;
+    private final SearchStats stats = new SearchStats();
+    // Each search has its own stop signal, so cancelling one never leaks into the next
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    private long elapsedNanos;
+    private long playouts;
+
+    // pool may be null to search on the calling thread
+    UctDriver(ForkJoinPool pool, UctTree<P>[] trees, long seed) {
+        if (trees.length == 0) throw new IllegalArgumentException("Thread count must be positive");
+        this.pool = pool;
+        this.trees = trees;
+        setSeed(seed);
+    }
+
+    // Gives every tree a new random stream split from the seed
+    void setSeed(long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (UctTree<P> tree : trees) tree.random = seeds.split();
+    }
+
+    int getThreads() {
+        return trees.length;
+    }
+
+    long getPlayouts() {
+        return playouts;
+    }
+
+    long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Nodes counts playouts, max ply the deepest tree descent
+    SearchStats getStats() {
+        return stats;
+    }
+
+    long playoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1_000_000_000L / elapsedNanos;
+    }
+
+    void cancel() {
+        stopSignal.set(true);
+    }
+
+    // Runs until either budget is spent (0 means no limit on that budget; at least
+    // one must be set) and returns the most visited root move, or -1 if the game is over
+    int findBestMove(P position, int playoutBudget, long timeBudgetMillis) {
+        return findBestMove(position, playoutBudget, timeBudgetMillis, new AtomicBoolean());
+    }
+
+    // As above, also stopping once stop is set, even if it was set before the search started
+    int findBestMove(P position, int playoutBudget, long timeBudgetMillis, AtomicBoolean stop) {
+        if (playoutBudget <= 0 && timeBudgetMillis <= 0) throw new IllegalArgumentException("No search budget");
+        UctTree<P> first = trees[0];
+        if (first.isGameOver(position)) return -1;
+        long start = System.nanoTime();
+        long deadline = timeBudgetMillis > 0 ? start + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        int perTree = playoutBudget > 0 ? Math.max(1, playoutBudget / trees.length) : Integer.MAX_VALUE;
+        stopSignal = stop;
+        stats.reset();
+
+        if (pool == null) {
+            for (UctTree<P> tree : trees) tree.search(tree.copy(position), perTree, deadline, stop);
+        } else {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[trees.length];
+            for (int i = 0; i < trees.length; i++) {
+                UctTree<P> tree = trees[i];
+                P copy = tree.copy(position);
+                tasks[i] = pool.submit(() -> tree.search(copy, perTree, deadline, stop));
+            }
+            for (ForkJoinTask<?> task : tasks) task.join();
+        }
+
+        // Sum visits per move over all trees
+        int[] visits = new int[first.moveSpace(position)];
+        playouts = 0;
+        for (UctTree<P> tree : trees) {
+            tree.addRootVisits(visits);
+            playouts += tree.playouts;
+            stats.maxPly = Math.max(stats.maxPly, tree.maxDepth);
+        }
+        stats.nodes = playouts;
+        int best = -1;
+        for (int move = 0; move < visits.length; move++) {
+            if (first.isLegal(position, move) && (best < 0 || visits[move] > visits[best])) best = move;
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return best;
+    }
+
+    // One line for the searches' command-line runs
+    String summary(int move) {
+        return String.format("move=%d playouts=%d playouts/s=%d maxPly=%d threads=%d", move, playouts,
+                playoutsPerSecond(), stats.getMaxPly(), trees.length);
+    }
+
+    // The command-line options both searches take; the rest are left to the caller
+    static final class Options {
+        long millis = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+
+        // False when the option is not one of --ms, --threads and --seed
+        boolean parse(String name, String value) {
+            switch (name) {
+                case "--ms": millis = Long.parseLong(value); return true;
+                case "--threads": threads = Integer.parseInt(value); return true;
+                case "--seed": seed = Long.parseLong(value); return true;
+                default: return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GameEngine;
+
+// One Monte Carlo search tree with UCT selection, the part MctsSearch and
+// UltimateSearch share. Nodes live in preallocated parallel arrays, so a
+// search allocates nothing per node; when the pool fills up the tree stops
+// growing and keeps doing playouts. Subclasses supply the game: move
+// generation, play and undo on the position being searched, and a random
+// playout from it. Only used by one thread at a time.
+abstract class UctTree<P> {
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int TIME_CHECK_INTERVAL = 63;
+
+    final int capacity;
+    final int[] move;
+    final int[] firstChild; // -1 until expanded
+    final int[] childCount;
+    final int[] visits;
+    final int[] reward; // 2 per win, 1 per tie, for the player who moved into the node
+    SplittableRandom random; // set by UctDriver
+
+    int used;
+    int root = -1;
+    long playouts;
+    int maxDepth;
+
+    private int[] path = new int[0];
+    private int[] candidates = new int[0];
+
+    UctTree(int capacity) {
+        this.capacity = capacity;
+        this.move = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new int[capacity];
+        this.visits = new int[capacity];
+        this.reward = new int[capacity];
+    }
+
+    // The game, always on the position handed to search
+    abstract P copy(P position);
+
+    // Moves are numbered 0 to moveSpace - 1
+    abstract int moveSpace(P position);
+
+    abstract boolean isLegal(P position, int move);
+
+    abstract int currentPlayer(P position);
+
+    abstract boolean isGameOver(P position);
+
+    abstract int getWinner(P position);
+
+    abstract void play(P position, int move);
+
+    abstract void undo(P position);
+
+    // Candidate moves of a node; returns how many were written
+    abstract int generateMoves(P position, int[] out);
+
+    // Winner of a random game from the position, which is left unchanged
+    abstract int playout(P position);
+
+    // Root node for a new search: a fresh tree, unless a subclass keeps part of the last one
+    int prepare(P position) {
+        used = 0;
+        return newNode(-1);
+    }
+
+    final void search(P position, int playoutBudget, long deadline, AtomicBoolean stop) {
+        int moves = moveSpace(position);
+        if (candidates.length != moves) {
+            path = new int[moves + 2];
+            candidates = new int[moves];
+        }
+        root = prepare(position);
+        playouts = 0;
+        maxDepth = 0;
+        int rootPlayer = currentPlayer(position);
+        for (int i = 0; i < playoutBudget; i++) {
+            if ((i & TIME_CHECK_INTERVAL) == 0 && (System.nanoTime() > deadline || stop.get())) break;
+            iterate(position, rootPlayer);
+            playouts++;
+        }
+    }
+
+    final void addRootVisits(int[] totals) {
+        for (int i = 0; i < childCount[root]; i++) {
+            int child = firstChild[root] + i;
+            totals[move[child]] += visits[child];
+        }
+    }
+
+    final int newNode(int cell) {
+        int node = used++;
+        move[node] = cell;
+        firstChild[node] = -1;
+        childCount[node] = 0;
+        visits[node] = 0;
+        reward[node] = 0;
+        return node;
+    }
+
+    // Selection, expansion, playout and backpropagation for one playout
+    private void iterate(P position, int rootPlayer) {
+        int node = root;
+        int depth = 0;
+        path[depth++] = node;
+        while (firstChild[node] >= 0 && !isGameOver(position)) {
+            node = select(node);
+            play(position, move[node]);
+            path[depth++] = node;
+        }
+        if (!isGameOver(position) && (visits[node] > 0 || node == root) && expand(node, position)) {
+            node = firstChild[node] + random.nextInt(childCount[node]);
+            play(position, move[node]);
+            path[depth++] = node;
+        }
+        if (depth - 1 > maxDepth) maxDepth = depth - 1;
+
+        int winner = isGameOver(position) ? getWinner(position) : playout(position);
+        for (int i = depth - 1; i >= 0; i--) {
+            int n = path[i];
+            visits[n]++;
+            // The player who moved into the node at depth i; the root was entered by the opponent
+            int mover = (i & 1) == 1 ? rootPlayer : GameEngine.opponent(rootPlayer);
+            if (winner == mover) reward[n] += 2;
+            else if (winner == GameEngine.TIE) reward[n]++;
+        }
+        for (int i = 1; i < depth; i++) undo(position);
+    }
+
+    // UCT; unvisited children first
+    private int select(int node) {
+        int first = firstChild[node];
+        double logParent = Math.log(Math.max(1, visits[node]));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + childCount[node]; child++) {
+            int n = visits[child];
+            if (n == 0) return child;
+            double value = reward[child] / (2.0 * n) + EXPLORATION * Math.sqrt(logParent / n);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Children are allocated as one contiguous block; false when the pool is full
+    private boolean expand(int node, P position) {
+        int count = generateMoves(position, candidates);
+        if (count == 0 || used + count > capacity) return false;
+        firstChild[node] = used;
+        childCount[node] = count;
+        for (int i = 0; i < count; i++) newNode(candidates[i]);
+        return true;
+    }
+}
@@ -0,0 +1,206 @@
+package tictactoe.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.UltimateBoard;
+
+// Monte Carlo tree search for Ultimate tic-tac-toe, where up to 81 moves a ply
+// put alpha-beta out of reach. The same UctDriver and UctTree as MctsSearch,
+// over an UltimateBoard. Playouts copy the position into nine pairs of ints
+// and play on those, testing lines with UltimateBoard's small-board table, so
+// a playout allocates nothing and never touches the board.
+public final class UltimateSearch {
+    public static final int DEFAULT_POOL_NODES = 1 << 18;
+
+    private final UctDriver<UltimateBoard> driver;
+
+    public UltimateSearch(ForkJoinPool pool, int threads) {
+        this(pool, threads, DEFAULT_POOL_NODES, 1);
+    }
+
+    public UltimateSearch(ForkJoinPool pool, int threads, int poolNodes, long seed) {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+        UltimateTree[] trees = new UltimateTree[threads];
+        for (int i = 0; i < threads; i++) {
+            trees[i] = new UltimateTree(poolNodes);
+        }
+        this.driver = new UctDriver<>(pool, trees, seed);
+    }
+
+    public int getThreads() {
+        return driver.getThreads();
+    }
+
+    public long getPlayouts() {
+        return driver.getPlayouts();
+    }
+
+    public long getElapsedNanos() {
+        return driver.getElapsedNanos();
+    }
+
+    // Nodes counts playouts, max ply the deepest tree descent
+    public SearchStats getStats() {
+        return driver.getStats();
+    }
+
+    public long playoutsPerSecond() {
+        return driver.playoutsPerSecond();
+    }
+
+    public void cancel() {
+        driver.cancel();
+    }
+
+    // Runs until either budget is spent (0 means no limit on that budget; at least
+    // one must be set) and returns the most visited root move, or -1 if the game is over
+    public int findBestMove(UltimateBoard board, int playoutBudget, long timeBudgetMillis) {
+        return driver.findBestMove(board, playoutBudget, timeBudgetMillis);
+    }
+
+    // As above, also stopping once stop is set, even if it was set before the search started
+    int findBestMove(UltimateBoard board, int playoutBudget, long timeBudgetMillis, AtomicBoolean stop) {
+        return driver.findBestMove(board, playoutBudget, timeBudgetMillis, stop);
+    }
+
+    // A tree over the 81 cells, with the scratch masks for its playouts
+    private static final class UltimateTree extends UctTree<UltimateBoard> {
+        private final int[] xMasks = new int[UltimateBoard.BOARDS];
+        private final int[] oMasks = new int[UltimateBoard.BOARDS];
+
+        UltimateTree(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        UltimateBoard copy(UltimateBoard board) {
+            return board.copy();
+        }
+
+        @Override
+        int moveSpace(UltimateBoard board) {
+            return UltimateBoard.CELLS;
+        }
+
+        @Override
+        boolean isLegal(UltimateBoard board, int cell) {
+            return board.isLegal(cell);
+        }
+
+        @Override
+        int currentPlayer(UltimateBoard board) {
+            return board.currentPlayer();
+        }
+
+        @Override
+        boolean isGameOver(UltimateBoard board) {
+            return board.isGameOver();
+        }
+
+        @Override
+        int getWinner(UltimateBoard board) {
+            return board.getWinner();
+        }
+
+        @Override
+        void play(UltimateBoard board, int cell) {
+            board.play(cell);
+        }
+
+        @Override
+        void undo(UltimateBoard board) {
+            board.undo();
+        }
+
+        @Override
+        int generateMoves(UltimateBoard board, int[] out) {
+            return board.legalMoves(out);
+        }
+
+        // Plays random legal moves to the end of the game on a copy of the masks
+        @Override
+        int playout(UltimateBoard board) {
+            for (int b = 0; b < UltimateBoard.BOARDS; b++) {
+                xMasks[b] = board.mask(GameEngine.X, b);
+                oMasks[b] = board.mask(GameEngine.O, b);
+            }
+            int xWon = board.wonBoards(GameEngine.X);
+            int oWon = board.wonBoards(GameEngine.O);
+            int decided = board.decidedBoards();
+            int next = board.getNextBoard();
+            int player = board.currentPlayer();
+            while (true) {
+                int target = next;
+                int square;
+                if (target != UltimateBoard.ANY_BOARD) {
+                    int empty = ~(xMasks[target] | oMasks[target]) & GameEngine.FULL;
+                    square = nthBit(empty, random.nextInt(Integer.bitCount(empty)));
+                } else {
+                    // Uniform over every empty square of every open board
+                    int total = 0;
+                    for (int open = ~decided & GameEngine.FULL; open != 0; open &= open - 1) {
+                        int b = Integer.numberOfTrailingZeros(open);
+                        total += GameEngine.CELLS - Integer.bitCount(xMasks[b] | oMasks[b]);
+                    }
+                    int pick = random.nextInt(total);
+                    square = -1;
+                    for (int open = ~decided & GameEngine.FULL; square < 0; open &= open - 1) {
+                        int b = Integer.numberOfTrailingZeros(open);
+                        int empty = ~(xMasks[b] | oMasks[b]) & GameEngine.FULL;
+                        int count = Integer.bitCount(empty);
+                        if (pick < count) {
+                            target = b;
+                            square = nthBit(empty, pick);
+                        } else {
+                            pick -= count;
+                        }
+                    }
+                }
+
+                int bit = 1 << target;
+                int mask = player == GameEngine.X ? (xMasks[target] |= 1 << square) : (oMasks[target] |= 1 << square);
+                if (UltimateBoard.isLine(mask)) {
+                    decided |= bit;
+                    int won = player == GameEngine.X ? (xWon |= bit) : (oWon |= bit);
+                    if (UltimateBoard.isLine(won)) return player;
+                } else if ((xMasks[target] | oMasks[target]) == GameEngine.FULL) {
+                    decided |= bit;
+                }
+                if (decided == GameEngine.FULL) return GameEngine.TIE;
+                next = (decided & (1 << square)) != 0 ? UltimateBoard.ANY_BOARD : square;
+                player = GameEngine.opponent(player);
+            }
+        }
+
+        private static int nthBit(int bits, int n) {
+            for (; n > 0; n--) bits &= bits - 1;
+            return Integer.numberOfTrailingZeros(bits);
+        }
+    }
+
+    //   java tictactoe.ai.UltimateSearch [--ms 1000] [--threads N] [--plies 0] [--seed 1]
+    public static void main(String[] args) {
+        int plies = 0;
+        UctDriver.Options options = new UctDriver.Options();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (options.parse(args[i], args[i + 1])) continue;
+            switch (args[i]) {
+                case "--plies": plies = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        // Random opening plies give a mid-game position to search
+        UltimateBoard board = new UltimateBoard();
+        SplittableRandom random = new SplittableRandom(options.seed);
+        int[] legal = new int[UltimateBoard.CELLS];
+        for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+            board.play(legal[random.nextInt(board.legalMoves(legal))]);
+        }
+        UltimateSearch search = new UltimateSearch(ForkJoinPool.commonPool(), options.threads);
+        int move = search.findBestMove(board, 0, options.millis);
+        System.out.println(search.driver.summary(move));
+    }
+}
@@ -0,0 +1,35 @@
+package tictactoe.ai;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.PerfectPlayTable;
+import tictactoe.engine.Symmetry;
+import tictactoe.engine.Variant;
+
+// Warms the engine on a low-priority daemon thread while the first frame is
+// being built: solving the 3x3 table (done in its class initializer) and a
+// short search on 4x4 so the first AI move does not pay for class loading,
+// table setup and interpretation.
+public final class Warmup {
+    private static Thread thread;
+
+    private Warmup() {
+    }
+
+    public static synchronized Thread start() {
+        if (thread == null) {
+            thread = new Thread(Warmup::run, "tic-tac-toe-warmup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+        return thread;
+    }
+
+    private static void run() {
+        PerfectPlayTable.reachablePositions();
+        GridBoard board = new GridBoard(Variant.FOUR);
+        board.play(5);
+        new GridSearch(50).findBestMove(board);
+        Symmetry.cellMaps(Variant.FOUR.getSize());
+    }
+}
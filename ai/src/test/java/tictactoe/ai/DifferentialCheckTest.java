@@ -0,0 +1,467 @@
+package tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.PerfectPlayTable;
+import tictactoe.engine.Symmetry;
+import tictactoe.engine.TranspositionTable;
+import tictactoe.engine.UltimateBoard;
+import tictactoe.engine.Variant;
+
+// Differential tests for the optimized engine paths. Every legal 3x3 position
+// (5,478 of them) is solved by a plain minimax without pruning, tables or bit
+// tricks, and the winner check, the solved table, the transposition-table
+// search, the depth-limited search, GridSearch and ParallelSearch must all
+// agree with it; ParallelSearch must also return the same move and score with
+// 1, 2 and 4 threads. Random games on N x N variants check win detection
+// against a full board scan, winning cells, incremental hashes, undo and
+// symmetry invariance, and random Ultimate games check the incremental board
+// results and move generation against a recount from the raw cells. Each
+// position and variant is its own test case, named after the board.
+//   mvn test -Dttt.check.games=2000 -Dttt.check.seed=1
+class DifferentialCheckTest {
+    static final int LEGAL_POSITIONS = 5478;
+    private static final int GAMES = Integer.getInteger("ttt.check.games", 2000);
+    private static final long SEED = Long.getLong("ttt.check.seed", 1);
+
+    private static final int[] THREADS = {1, 2, 4};
+    private static final Variant[] GRID_VARIANTS = {
+        Variant.CLASSIC, Variant.FOUR, Variant.FIVE_K4, Variant.of(6, 4), Variant.of(7, 5), Variant.GOMOKU,
+        Variant.of(19, 5)
+    };
+
+    private static ForkJoinPool[] pools;
+
+    @BeforeAll
+    static void startPools() {
+        pools = new ForkJoinPool[THREADS.length];
+        for (int i = 0; i < THREADS.length; i++) pools[i] = new ForkJoinPool(THREADS[i]);
+    }
+
+    @AfterAll
+    static void stopPools() {
+        for (ForkJoinPool pool : pools) pool.shutdown();
+    }
+
+    // Every position reachable from the empty board by legal play, stopping at wins:
+    // {xMask, oMask, moves...} with the first move sequence found that reaches it
+    static List<int[]> legalPositions() {
+        List<int[]> positions = new ArrayList<>();
+        boolean[] seen = new boolean[PerfectPlayTable.POSITIONS];
+        collect(0, 0, new int[GameEngine.CELLS], 0, seen, positions);
+        return positions;
+    }
+
+    private static void collect(int xMask, int oMask, int[] path, int plies, boolean[] seen, List<int[]> positions) {
+        int index = PerfectPlayTable.index(xMask, oMask);
+        if (seen[index]) return;
+        seen[index] = true;
+        int[] position = new int[2 + plies];
+        position[0] = xMask;
+        position[1] = oMask;
+        System.arraycopy(path, 0, position, 2, plies);
+        positions.add(position);
+        if (referenceWinner(xMask, oMask) != GameEngine.NONE) return;
+        boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((xMask | oMask) & bit) != 0) continue;
+            path[plies] = cell;
+            if (xToMove) collect(xMask | bit, oMask, path, plies + 1, seen, positions);
+            else collect(xMask, oMask | bit, path, plies + 1, seen, positions);
+        }
+    }
+
+    // Row, column and diagonal scan over the cells, independent of the line masks
+    static int referenceWinner(int xMask, int oMask) {
+        for (int player = GameEngine.X; player <= GameEngine.O; player++) {
+            int mask = player == GameEngine.X ? xMask : oMask;
+            boolean diagonal = true;
+            boolean antiDiagonal = true;
+            for (int i = 0; i < 3; i++) {
+                boolean row = true;
+                boolean col = true;
+                for (int j = 0; j < 3; j++) {
+                    row &= (mask & (1 << (i * 3 + j))) != 0;
+                    col &= (mask & (1 << (j * 3 + i))) != 0;
+                }
+                if (row || col) return player;
+                diagonal &= (mask & (1 << (i * 3 + i))) != 0;
+                antiDiagonal &= (mask & (1 << (i * 3 + 2 - i))) != 0;
+            }
+            if (diagonal || antiDiagonal) return player;
+        }
+        return (xMask | oMask) == GameEngine.FULL ? GameEngine.TIE : GameEngine.NONE;
+    }
+
+    // Plain minimax from the side to move: 11 - plies for a win, plies - 11 for a
+    // loss, 0 for a draw, the same scale as GameEngine and PerfectPlayTable
+    static int referenceScore(int xMask, int oMask) {
+        int winner = referenceWinner(xMask, oMask);
+        if (winner == GameEngine.TIE) return 0;
+        if (winner != GameEngine.NONE) return -11;
+        boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        int best = Integer.MIN_VALUE;
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((xMask | oMask) & bit) != 0) continue;
+            int child = xToMove ? referenceScore(xMask | bit, oMask) : referenceScore(xMask, oMask | bit);
+            best = Math.max(best, fromChild(child));
+        }
+        return best;
+    }
+
+    // A child's score seen from its parent: negated and one ply further away
+    private static int fromChild(int child) {
+        return child > 0 ? 1 - child : child < 0 ? -child - 1 : 0;
+    }
+
+    // Reference score of playing each cell, Integer.MIN_VALUE for occupied cells
+    private static int[] referenceMoveScores(int xMask, int oMask) {
+        boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        int[] scores = new int[GameEngine.CELLS];
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            int bit = 1 << cell;
+            scores[cell] = ((xMask | oMask) & bit) != 0 ? Integer.MIN_VALUE
+                    : fromChild(xToMove ? referenceScore(xMask | bit, oMask) : referenceScore(xMask, oMask | bit));
+        }
+        return scores;
+    }
+
+    private static boolean isOptimal(int move, int[] moveScores, int best) {
+        return move >= 0 && move < GameEngine.CELLS && moveScores[move] == best;
+    }
+
+    // GridSearch and ParallelSearch take the first forced win they find rather than
+    // the fastest, so they are held to the game result, not the distance
+    private static boolean keepsResult(int move, int[] moveScores, int best) {
+        return move >= 0 && move < GameEngine.CELLS && moveScores[move] != Integer.MIN_VALUE
+                && Integer.signum(moveScores[move]) == Integer.signum(best);
+    }
+
+    private static boolean sameResult(int gridScore, int best) {
+        int result = gridScore >= GridSearch.MATE_BOUND ? 1 : gridScore <= -GridSearch.MATE_BOUND ? -1 : 0;
+        return result == Integer.signum(best) && (result != 0 || gridScore == 0);
+    }
+
+    private static GridBoard toGridBoard(int[] position) {
+        GridBoard board = new GridBoard(Variant.CLASSIC);
+        for (int i = 2; i < position.length; i++) board.play(position[i]);
+        return board;
+    }
+
+    static String describe(int xMask, int oMask) {
+        StringBuilder sb = new StringBuilder(GameEngine.CELLS);
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            int bit = 1 << cell;
+            sb.append((xMask & bit) != 0 ? 'X' : (oMask & bit) != 0 ? 'O' : '.');
+        }
+        return sb.toString();
+    }
+
+    // The legal positions as test arguments, named after the board
+    static Stream<Arguments> classicPositions() {
+        return legalPositions().stream().map(position -> Arguments.of(describe(position[0], position[1]), position));
+    }
+
+    static Stream<Variant> gridVariants() {
+        return Stream.of(GRID_VARIANTS);
+    }
+
+    @Test
+    void legalPositionCount() {
+        assertEquals(LEGAL_POSITIONS, legalPositions().size(), "enumerated");
+        assertEquals(LEGAL_POSITIONS, PerfectPlayTable.reachablePositions(), "in the table");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("classicPositions")
+    void classicPosition(String board, int[] position) {
+        int x = position[0];
+        int o = position[1];
+        int expectedWinner = referenceWinner(x, o);
+        assertEquals(expectedWinner, GameEngine.winner(x, o), "winner");
+        GridBoard grid = toGridBoard(position);
+        assertEquals(expectedWinner, grid.getWinner(), "GridBoard winner");
+
+        int best = referenceScore(x, o);
+        assertEquals(best, PerfectPlayTable.score(x, o), "table score");
+        int distance = best > 0 ? 11 - best : best < 0 ? 11 + best : GameEngine.CELLS - Integer.bitCount(x | o);
+        assertEquals(distance, PerfectPlayTable.distance(x, o), "table distance");
+        if (expectedWinner != GameEngine.NONE) {
+            assertEquals(PerfectPlayTable.NO_MOVE, PerfectPlayTable.bestMove(x, o), "table move after the game");
+            return;
+        }
+
+        int[] moveScores = referenceMoveScores(x, o);
+        assertOptimal(PerfectPlayTable.bestMove(x, o), moveScores, best, "table move");
+
+        int player = Integer.bitCount(x) == Integer.bitCount(o) ? GameEngine.X : GameEngine.O;
+        GameEngine engine = new GameEngine();
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            if ((x & (1 << cell)) != 0) engine.makeMove(cell, GameEngine.X);
+            if ((o & (1 << cell)) != 0) engine.makeMove(cell, GameEngine.O);
+        }
+        assertOptimal(engine.searchBestMove(player, new TranspositionTable()), moveScores, best,
+                "tt search, fresh table");
+        assertOptimal(engine.searchBestMove(player), moveScores, best, "tt search, shared table");
+
+        assertOptimal(GameEngine.depthLimitedMove(x, o, GameEngine.CELLS), moveScores, best, "depth-limited move");
+        int[] scores = new int[GameEngine.CELLS];
+        GameEngine.depthLimitedScores(x, o, GameEngine.CELLS, scores);
+        for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+            if (moveScores[cell] != Integer.MIN_VALUE) {
+                assertEquals(moveScores[cell], scores[cell], "depth-limited score of cell " + cell);
+            }
+        }
+
+        // With a single legal move GridSearch returns it without searching or scoring
+        GridSearch search = new GridSearch(60_000);
+        int move = search.findBestMove(grid);
+        assertKeepsResult(move, moveScores, best, "GridSearch");
+        if (search.getCompletedDepth() > 0) assertSameResult(search.getBestScore(), best, "GridSearch");
+
+        int depth = GameEngine.CELLS - grid.getMoveCount();
+        ParallelSearch serial = new ParallelSearch(pools[0]);
+        int serialMove = serial.search(grid, depth);
+        assertKeepsResult(serialMove, moveScores, best, "ParallelSearch");
+        assertSameResult(serial.getBestScore(), best, "ParallelSearch");
+        for (int i = 1; i < pools.length; i++) {
+            ParallelSearch parallel = new ParallelSearch(pools[i]);
+            assertEquals(serialMove, parallel.search(grid, depth), "ParallelSearch move, " + THREADS[i] + " threads");
+            assertEquals(serial.getBestScore(), parallel.getBestScore(),
+                    "ParallelSearch score, " + THREADS[i] + " threads");
+        }
+    }
+
+    @Test
+    void symmetryCellMaps() {
+        int[][] maps = Symmetry.cellMaps(3);
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+                String where = "transform " + t + " cell " + cell;
+                assertEquals(Symmetry.transformCell(cell, t), maps[t][cell], where);
+                assertEquals(cell, Symmetry.transformCell(Symmetry.transformCell(cell, t), Symmetry.inverse(t)), where);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("classicPositions")
+    void symmetricPositions(String board, int[] position) {
+        int x = position[0];
+        int o = position[1];
+        int best = PerfectPlayTable.score(x, o);
+        int index = Symmetry.canonicalIndex(x, o);
+        int[] moveScores = PerfectPlayTable.bestMove(x, o) == PerfectPlayTable.NO_MOVE ? null
+                : referenceMoveScores(x, o);
+        for (int t = 1; t < Symmetry.COUNT; t++) {
+            int tx = Symmetry.transform(x, t);
+            int to = Symmetry.transform(o, t);
+            String where = "transform " + t;
+            assertEquals(best, PerfectPlayTable.score(tx, to), where + ": table score");
+            assertEquals(index, Symmetry.canonicalIndex(tx, to), where + ": canonical index");
+            if (moveScores != null) {
+                // Map the transformed position's move back before judging it
+                int back = Symmetry.transformCell(PerfectPlayTable.bestMove(tx, to), Symmetry.inverse(t));
+                assertOptimal(back, moveScores, best, where + ": table move");
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("gridVariants")
+    void gridGames(Variant variant) {
+        SplittableRandom random = new SplittableRandom(SEED * 31 + variant.getSize() * 32L + variant.getWinLength());
+        int[][] maps = Symmetry.cellMaps(variant.getSize());
+        for (int game = 0; game < GAMES; game++) {
+            GridBoard board = new GridBoard(variant);
+            GridBoard[] images = new GridBoard[Symmetry.COUNT];
+            for (int t = 0; t < Symmetry.COUNT; t++) images[t] = new GridBoard(variant);
+            while (!board.isGameOver()) {
+                int cell = randomEmptyCell(board, random);
+                long before = board.getHash();
+                board.play(cell);
+                String where = "game " + game + " ply " + board.getMoveCount();
+
+                assertEquals(scanWinner(board), board.getWinner(), () -> where + ": winner vs full scan");
+                if (board.getWinner() == GameEngine.X || board.getWinner() == GameEngine.O) {
+                    assertTrue(isWinningRun(board, board.winningCells()), () -> where + ": winning cells");
+                }
+                assertEquals(board.symmetricHash(0), board.getHash(), () -> where + ": incremental hash");
+                assertEquals(board.getHash(), board.copy().getHash(), () -> where + ": copied hash");
+
+                int result = board.getWinner();
+                long after = board.getHash();
+                board.undo();
+                assertEquals(before, board.getHash(), () -> where + ": hash after undo");
+                assertEquals(GameEngine.NONE, board.getWinner(), () -> where + ": winner after undo");
+                assertTrue(board.isEmpty(cell), () -> where + ": cell after undo");
+                board.play(cell);
+                assertEquals(after, board.getHash(), () -> where + ": hash replayed");
+                assertEquals(result, board.getWinner(), () -> where + ": winner replayed");
+
+                long canonicalHash = board.canonicalHash();
+                for (int t = 0; t < Symmetry.COUNT; t++) {
+                    GridBoard image = images[t];
+                    image.play(maps[t][cell]);
+                    int transform = t;
+                    assertEquals(result, image.getWinner(), () -> where + ": winner under transform " + transform);
+                    assertEquals(board.symmetricHash(t), image.getHash(),
+                            () -> where + ": hash under transform " + transform);
+                    assertEquals(canonicalHash, image.canonicalHash(),
+                            () -> where + ": canonical hash under transform " + transform);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ultimateGames() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] moves = new int[UltimateBoard.CELLS];
+        for (int game = 0; game < GAMES; game++) {
+            UltimateBoard board = new UltimateBoard();
+            while (!board.isGameOver()) {
+                int count = board.legalMoves(moves);
+                String where = "game " + game + " ply " + board.getMoveCount();
+                int scanned = 0;
+                for (int cell = 0; cell < UltimateBoard.CELLS; cell++) {
+                    if (!isUltimateLegal(board, cell)) continue;
+                    int legal = cell;
+                    int listed = scanned;
+                    assertTrue(listed < count && moves[listed] == legal,
+                            () -> where + ": legal cell " + legal + " not listed at " + listed);
+                    scanned++;
+                }
+                assertEquals(scanned, count, () -> where + ": legal move count");
+
+                int cell = moves[random.nextInt(count)];
+                int next = board.getNextBoard();
+                board.play(cell);
+                assertEquals(recountWinner(board), board.getWinner(), () -> where + ": result after " + cell);
+                for (int b = 0; b < UltimateBoard.BOARDS; b++) {
+                    int small = b;
+                    assertEquals(smallWinner(board, b), board.boardWinner(b), () -> where + ": board " + small);
+                }
+
+                int winner = board.getWinner();
+                board.undo();
+                assertTrue(board.isEmpty(cell), () -> where + ": cell after undo");
+                assertEquals(next, board.getNextBoard(), () -> where + ": next board after undo");
+                assertFalse(board.isGameOver(), () -> where + ": game over after undo");
+                board.play(cell);
+                assertEquals(winner, board.getWinner(), () -> where + ": winner replayed");
+            }
+        }
+    }
+
+    private static void assertOptimal(int move, int[] moveScores, int best, String what) {
+        assertTrue(isOptimal(move, moveScores, best), () -> what + " plays " + move + ", scoring "
+                + (move >= 0 && move < GameEngine.CELLS ? moveScores[move] : "nothing") + " instead of " + best);
+    }
+
+    private static void assertKeepsResult(int move, int[] moveScores, int best, String what) {
+        assertTrue(keepsResult(move, moveScores, best), () -> what + " plays " + move + ", expected result " + best);
+    }
+
+    private static void assertSameResult(int gridScore, int best, String what) {
+        assertTrue(sameResult(gridScore, best), () -> what + " scored " + gridScore + ", expected result " + best);
+    }
+
+    // Legality from the rules alone: the game is open, the cell is empty, its board is
+    // undecided, and it is the board the last move sent us to unless that one is decided
+    private static boolean isUltimateLegal(UltimateBoard board, int cell) {
+        if (recountWinner(board) != GameEngine.NONE || !board.isEmpty(cell)) return false;
+        int b = UltimateBoard.boardOf(cell);
+        if (smallWinner(board, b) != GameEngine.NONE) return false;
+        int last = board.lastMove();
+        if (last < 0) return true;
+        int sent = UltimateBoard.squareOf(last);
+        return sent == b || smallWinner(board, sent) != GameEngine.NONE;
+    }
+
+    private static int smallWinner(UltimateBoard board, int b) {
+        return GameEngine.winner(board.mask(GameEngine.X, b), board.mask(GameEngine.O, b));
+    }
+
+    private static int recountWinner(UltimateBoard board) {
+        int xWon = 0;
+        int oWon = 0;
+        int decided = 0;
+        for (int b = 0; b < UltimateBoard.BOARDS; b++) {
+            int small = smallWinner(board, b);
+            if (small == GameEngine.X) xWon |= 1 << b;
+            if (small == GameEngine.O) oWon |= 1 << b;
+            if (small != GameEngine.NONE) decided |= 1 << b;
+        }
+        if (GameEngine.hasLine(xWon)) return GameEngine.X;
+        if (GameEngine.hasLine(oWon)) return GameEngine.O;
+        return decided == GameEngine.FULL ? GameEngine.TIE : GameEngine.NONE;
+    }
+
+    private static int randomEmptyCell(GridBoard board, SplittableRandom random) {
+        int cells = board.getCellCount();
+        int cell = random.nextInt(cells);
+        while (!board.isEmpty(cell)) cell = cell + 1 == cells ? 0 : cell + 1;
+        return cell;
+    }
+
+    // Winner by scanning every run on the board rather than the lines through the last move
+    private static int scanWinner(GridBoard board) {
+        int size = board.getSize();
+        int k = board.getWinLength();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int player = board.owner(row * size + col);
+                if (player == GameEngine.NONE) continue;
+                for (int d = 0; d < 4; d++) {
+                    int length = 0;
+                    int r = row;
+                    int c = col;
+                    while (r >= 0 && r < size && c >= 0 && c < size && board.owner(r * size + c) == player) {
+                        length++;
+                        r += GridBoard.rowStep(d);
+                        c += GridBoard.colStep(d);
+                    }
+                    if (length >= k) return player;
+                }
+            }
+        }
+        return board.getMoveCount() == board.getCellCount() ? GameEngine.TIE : GameEngine.NONE;
+    }
+
+    // At least K consecutive cells of the winner in one direction, through the last move
+    private static boolean isWinningRun(GridBoard board, int[] line) {
+        if (line.length < board.getWinLength()) return false;
+        int size = board.getSize();
+        int step = line.length > 1 ? line[1] - line[0] : 0;
+        boolean hasLast = false;
+        for (int i = 0; i < line.length; i++) {
+            if (board.owner(line[i]) != board.getWinner()) return false;
+            if (i > 0) {
+                int dr = line[i] / size - line[i - 1] / size;
+                int dc = line[i] % size - line[i - 1] % size;
+                if (line[i] - line[i - 1] != step || Math.abs(dr) > 1 || Math.abs(dc) > 1) return false;
+            }
+            hasLast |= line[i] == board.lastMove();
+        }
+        return hasLast;
+    }
+}
@@ -0,0 +1,109 @@
+package tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// A fixed-depth ParallelSearch must return the same move and score for any
+// thread count and on every repeat, whatever other searches have written or
+// keep writing to the shared table.
+class ParallelSearchTest {
+    private static final int[] THREADS = {1, 2, 4};
+    private static final int REPEATS = 3;
+
+    // "variant:depth:moves"
+    private static GridBoard position(String spec) {
+        String[] parts = spec.split(":");
+        Variant variant = parts[0].equals("4x4") ? Variant.FOUR
+                : parts[0].equals("5x5k4") ? Variant.FIVE_K4 : Variant.GOMOKU;
+        GridBoard board = new GridBoard(variant);
+        for (String cell : parts[2].split(",")) board.play(Integer.parseInt(cell));
+        return board;
+    }
+
+    private static int depth(String spec) {
+        return Integer.parseInt(spec.split(":")[1]);
+    }
+
+    // {move, score} of a single-threaded search
+    private static int[] serialResult(GridBoard board, int depth) {
+        ForkJoinPool serial = new ForkJoinPool(1);
+        try {
+            ParallelSearch search = new ParallelSearch(serial);
+            int move = search.search(board, depth);
+            return new int[] {move, search.getBestScore()};
+        } finally {
+            serial.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4x4:7:5,6", "5x5k4:5:12,6,18", "gomoku:4:112,113,97,98"})
+    void sameResultForEveryThreadCount(String spec) throws InterruptedException {
+        GridBoard board = position(spec);
+        int depth = depth(spec);
+        int[] expected = serialResult(board, depth);
+        int expectedMove = expected[0];
+        int expectedScore = expected[1];
+
+        // Other searches of the same position keep storing into the shared table: a
+        // timed one with deeper entries and a fixed-depth one with the same keys
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread noise = new Thread(() -> {
+            GridSearch timed = new GridSearch(50);
+            ForkJoinPool pool = new ForkJoinPool(1);
+            ParallelSearch fixed = new ParallelSearch(pool);
+            while (!stop.get()) {
+                timed.findBestMove(board.copy());
+                fixed.search(board.copy(), depth);
+            }
+            pool.shutdown();
+        });
+        noise.start();
+        try {
+            for (int threads : THREADS) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    ParallelSearch search = new ParallelSearch(pool);
+                    for (int repeat = 0; repeat < REPEATS; repeat++) {
+                        String run = spec + " with " + threads + " threads, repeat " + repeat;
+                        assertEquals(expectedMove, search.search(board, depth), run);
+                        assertEquals(expectedScore, search.getBestScore(), run);
+                        assertEquals(depth, search.getCompletedDepth(), run);
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            stop.set(true);
+            noise.join();
+        }
+    }
+
+    // Deeper entries left under the very keys the root tasks use must not change the result
+    @ParameterizedTest
+    @ValueSource(strings = {"4x4:7:5,6", "5x5k4:5:12,6,18", "gomoku:4:112,113,97,98"})
+    void deeperTableEntriesDoNotChangeTheResult(String spec) {
+        GridBoard board = position(spec);
+        int depth = depth(spec);
+        int[] expected = serialResult(board, depth);
+
+        GridSearch other = new GridSearch();
+        int[] moves = new int[board.getCellCount()];
+        int count = GridSearch.generateMoves(board, moves);
+        int generation = other.getCache().newSearch();
+        for (int i = 0; i < count; i++) {
+            other.searchMove(board, moves[i], depth + 1, -GridSearch.INFINITY, GridSearch.INFINITY, Long.MAX_VALUE,
+                    ParallelSearch.salt(depth, i), generation, new AtomicBoolean());
+        }
+        assertArrayEquals(expected, serialResult(board, depth), spec);
+    }
+}
@@ -0,0 +1,46 @@
+package tictactoe.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+// Replacement in the shared table when searches overlap: one search's deep
+// entries must survive a shallow search that starts while it is running.
+class SearchCacheTest {
+    private static final int ENTRIES = 1 << 16; // a 1 MB cache
+
+    @Test
+    void deepEntrySurvivesConcurrentShallowSearch() throws InterruptedException {
+        SearchCache cache = new SearchCache(1, SearchCache.DEPTH_PREFERRED);
+        assertEquals(ENTRIES, cache.getCapacity());
+        int deep = cache.newSearch();
+        for (long key = 1; key <= 1000; key++) cache.store(key, 7, 0, 12, 4, deep);
+
+        // Keys one capacity apart land in the same slots
+        int shallow = cache.newSearch();
+        Thread other = new Thread(() -> {
+            for (long key = 1; key <= 1000; key++) cache.store(key + ENTRIES, -3, 0, 2, 1, shallow);
+        });
+        other.start();
+        other.join();
+
+        for (long key = 1; key <= 1000; key++) {
+            long data = cache.probe(key);
+            assertNotEquals(0, data, "deep entry " + key + " was evicted");
+            assertEquals(12, SearchCache.depth(data));
+            assertEquals(0, cache.probe(key + ENTRIES));
+        }
+    }
+
+    @Test
+    void oldEntriesAreReplaced() {
+        SearchCache cache = new SearchCache(1, SearchCache.DEPTH_PREFERRED);
+        cache.store(5, 7, 0, 12, 4, cache.newSearch());
+        int later = 0;
+        for (int i = 0; i < 8; i++) later = cache.newSearch();
+        cache.store(5 + ENTRIES, -3, 0, 2, 1, later);
+        assertEquals(0, cache.probe(5));
+        assertEquals(2, SearchCache.depth(cache.probe(5 + ENTRIES)));
+    }
+}
@@ -0,0 +1,8 @@
+// JMH benchmarks for the engine and the search.
+module tictactoe.bench {
+    requires jmh.core;
+    requires tictactoe.ai;
+
+    exports tictactoe.bench;
+    exports tictactoe.bench.jmh_generated;
+}
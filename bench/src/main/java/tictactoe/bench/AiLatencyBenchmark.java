@@ -0,0 +1,61 @@
+package tictactoe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import tictactoe.ai.GridSearch;
+import tictactoe.ai.SearchCache;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// Time for one AI move at a fixed search depth, by board and game phase
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AiLatencyBenchmark {
+    private static final int[] SCRIPT_3X3 = {4, 0, 8, 2, 1, 7};
+    private static final int[] SCRIPT_4X4 = {5, 6, 9, 10, 0, 15, 3, 12, 1, 2};
+    private static final int[] SCRIPT_GOMOKU = {112, 113, 114, 97, 82, 127, 144, 111, 100, 99, 70, 83, 130, 141};
+
+    @Param({"3x3", "4x4", "gomoku"})
+    public String board;
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private GridBoard position;
+    private GridSearch search;
+
+    @Setup
+    public void setUp() {
+        Variant variant;
+        int[] script;
+        int depth;
+        switch (board) {
+            case "3x3": variant = Variant.CLASSIC; script = SCRIPT_3X3; depth = 9; break;
+            case "4x4": variant = Variant.FOUR; script = SCRIPT_4X4; depth = 5; break;
+            default: variant = Variant.GOMOKU; script = SCRIPT_GOMOKU; depth = 3; break;
+        }
+        int plies = phase.equals("opening") ? 1 : phase.equals("middlegame") ? script.length / 2 : script.length;
+        position = new GridBoard(variant);
+        for (int i = 0; i < plies; i++) {
+            position.play(script[i]);
+        }
+        // 4 MB, the size of the per-search table the baseline was recorded with
+        search = new GridSearch(60_000, depth, new SearchCache(4, SearchCache.DEPTH_PREFERRED));
+    }
+
+    // Each move starts with an empty search table, as in a fresh AI process
+    @Setup(Level.Invocation)
+    public void clearSearch() {
+        search.clear();
+    }
+
+    @Benchmark
+    public int searchMove() {
+        return search.findBestMove(position);
+    }
+}
@@ -0,0 +1,56 @@
+package tictactoe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import tictactoe.ai.GridSearch;
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+    private final int[] moves = new int[Variant.GOMOKU.getCells()];
+    private GridBoard gomoku;
+    private GridBoard fourByFour;
+    private int xMask;
+    private int oMask;
+
+    @Setup
+    public void setUp() {
+        xMask = 0b000_010_001;
+        oMask = 0b100_000_000;
+
+        gomoku = new GridBoard(Variant.GOMOKU);
+        for (int cell : new int[] {112, 113, 97, 98, 127, 128, 82, 83}) {
+            gomoku.play(cell);
+        }
+        fourByFour = new GridBoard(Variant.FOUR);
+        fourByFour.play(5);
+        fourByFour.play(6);
+    }
+
+    @Benchmark
+    public int bitboardEmptyCells() {
+        int sum = 0;
+        for (int bits = ~(xMask | oMask) & GameEngine.FULL; bits != 0; bits &= bits - 1) {
+            sum += Integer.numberOfTrailingZeros(bits);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int fourByFourMoves() {
+        return GridSearch.generateMoves(fourByFour, moves);
+    }
+
+    @Benchmark
+    public int gomokuMoves() {
+        return GridSearch.generateMoves(gomoku, moves);
+    }
+}
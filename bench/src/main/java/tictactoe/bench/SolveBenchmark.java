@@ -0,0 +1,36 @@
+package tictactoe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.PerfectPlayTable;
+import tictactoe.engine.TranspositionTable;
+
+// Full alpha-beta solve of the empty 3x3 board, against the solved-table lookup
+// the AI actually uses
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolveBenchmark {
+    private final GameEngine engine = new GameEngine();
+    private final TranspositionTable table = new TranspositionTable();
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public int solveEmptyBoard() {
+        return engine.searchBestMove(GameEngine.X, table);
+    }
+
+    @Benchmark
+    public int perfectTableMove() {
+        return PerfectPlayTable.bestMove(engine.getXMask(), engine.getOMask());
+    }
+}
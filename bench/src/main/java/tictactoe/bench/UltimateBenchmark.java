@@ -0,0 +1,64 @@
+package tictactoe.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import tictactoe.ai.UltimateSearch;
+import tictactoe.engine.UltimateBoard;
+
+// Ultimate tic-tac-toe as a load case for the search: move generation on an
+// open and a forced position, and a fixed number of Monte Carlo playouts from
+// the empty board and from mid-game.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UltimateBenchmark {
+    private static final int PLAYOUTS = 10_000;
+
+    private final int[] moves = new int[UltimateBoard.CELLS];
+    private UltimateBoard empty;
+    private UltimateBoard midGame;
+    private UltimateBoard anyBoard;
+    private UltimateSearch search;
+
+    @Setup
+    public void setUp() {
+        empty = new UltimateBoard();
+        midGame = new UltimateBoard();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int ply = 0; ply < 20; ply++) {
+            midGame.play(moves[random.nextInt(midGame.legalMoves(moves))]);
+        }
+        // X sends O into board 4, which O has already won, so O may play in any board
+        anyBoard = new UltimateBoard();
+        for (int cell : new int[] {40, 36, 4, 37, 13, 38, 22}) {
+            anyBoard.play(cell);
+        }
+        search = new UltimateSearch(ForkJoinPool.commonPool(), 1, UltimateSearch.DEFAULT_POOL_NODES, 1);
+    }
+
+    @Benchmark
+    public int forcedBoardMoves() {
+        return midGame.legalMoves(moves);
+    }
+
+    @Benchmark
+    public int anyBoardMoves() {
+        return anyBoard.legalMoves(moves);
+    }
+
+    @Benchmark
+    public int searchEmpty() {
+        return search.findBestMove(empty, PLAYOUTS, 0);
+    }
+
+    @Benchmark
+    public int searchMidGame() {
+        return search.findBestMove(midGame, PLAYOUTS, 0);
+    }
+}
@@ -0,0 +1,67 @@
+package tictactoe.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WinDetectionBenchmark {
+    private static final int POSITIONS = 1024;
+
+    private final int[] xMasks = new int[POSITIONS];
+    private final int[] oMasks = new int[POSITIONS];
+    private GridBoard gomoku;
+
+    @Setup
+    public void setUp() {
+        // Random legal-looking 3x3 positions: alternate stones into empty cells
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POSITIONS; i++) {
+            int x = 0;
+            int o = 0;
+            int stones = random.nextInt(10);
+            for (int s = 0; s < stones; s++) {
+                int cell;
+                do {
+                    cell = random.nextInt(9);
+                } while (((x | o) & (1 << cell)) != 0);
+                if ((s & 1) == 0) x |= 1 << cell;
+                else o |= 1 << cell;
+            }
+            xMasks[i] = x;
+            oMasks[i] = o;
+        }
+
+        gomoku = new GridBoard(Variant.GOMOKU);
+        for (int cell : new int[] {112, 113, 97, 98, 127, 128, 82, 83, 142}) {
+            gomoku.play(cell);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public void bitboardWinner(Blackhole blackhole) {
+        for (int i = 0; i < POSITIONS; i++) {
+            blackhole.consume(GameEngine.winner(xMasks[i], oMasks[i]));
+        }
+    }
+
+    // Incremental check: only the four lines through the move are walked
+    @Benchmark
+    public int gomokuPlayUndo() {
+        gomoku.play(143);
+        int winner = gomoku.getWinner();
+        gomoku.undo();
+        return winner;
+    }
+}
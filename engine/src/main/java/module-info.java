@@ -0,0 +1,5 @@
+// Rules, boards, solved tables and the game log. Pure java.base so the
+// headless tools never load AWT.
+module tictactoe.engine {
+    exports tictactoe.engine;
+}
@@ -0,0 +1,241 @@
+package tictactoe.engine;
+
+public class GameEngine {
+    public static final int NONE = 0;
+    public static final int X = 1;
+    public static final int O = 2;
+    public static final int TIE = 3;
+
+    public static final int CELLS = 9;
+    public static final int FULL = 0x1FF;
+
+    // Rows, columns, then the two diagonals; bit (r * 3 + c) is cell (r, c)
+    public static final int[] WIN_LINES = {
+        0x007, 0x038, 0x1C0,
+        0x049, 0x092, 0x124,
+        0x111, 0x054
+    };
+
+    private int xMask;
+    private int oMask;
+
+    public void reset() {
+        xMask = 0;
+        oMask = 0;
+    }
+
+    public int getXMask() {
+        return xMask;
+    }
+
+    public int getOMask() {
+        return oMask;
+    }
+
+    public int owner(int cell) {
+        int bit = 1 << cell;
+        if ((xMask & bit) != 0) return X;
+        if ((oMask & bit) != 0) return O;
+        return NONE;
+    }
+
+    public boolean isEmpty(int cell) {
+        return ((xMask | oMask) & (1 << cell)) == 0;
+    }
+
+    public int emptyCount() {
+        return CELLS - Integer.bitCount(xMask | oMask);
+    }
+
+    public void makeMove(int cell, int player) {
+        if (player == X) xMask |= 1 << cell;
+        else oMask |= 1 << cell;
+    }
+
+    public void undoMove(int cell, int player) {
+        if (player == X) xMask &= ~(1 << cell);
+        else oMask &= ~(1 << cell);
+    }
+
+    public int getWinner() {
+        return winner(xMask, oMask);
+    }
+
+    // Mask of the completed line, or 0 if nobody has won
+    public int winningLine() {
+        for (int line : WIN_LINES) {
+            if ((xMask & line) == line || (oMask & line) == line) return line;
+        }
+        return 0;
+    }
+
+    public static boolean hasLine(int mask) {
+        for (int line : WIN_LINES) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    public static int winner(int xMask, int oMask) {
+        if (hasLine(xMask)) return X;
+        if (hasLine(oMask)) return O;
+        if ((xMask | oMask) == FULL) return TIE;
+        return NONE;
+    }
+
+    public static int opponent(int player) {
+        return player == X ? O : X;
+    }
+
+    // Best cell for the side to move, or -1 if the board is already decided
+    public int findBestMove() {
+        return PerfectPlayTable.bestMove(xMask, oMask);
+    }
+
+    // Full alpha-beta search over the shared transposition table; kept alongside
+    // the solved table for cross-checking it
+    public int searchBestMove(int aiPlayer) {
+        return searchBestMove(aiPlayer, TranspositionTable.shared());
+    }
+
+    public int searchBestMove(int aiPlayer, TranspositionTable table) {
+        int aiMask = aiPlayer == X ? xMask : oMask;
+        int humanMask = aiPlayer == X ? oMask : xMask;
+        if (winner(xMask, oMask) != NONE) return -1;
+
+        int bestScore = Integer.MIN_VALUE;
+        int move = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((aiMask | humanMask) & bit) == 0) {
+                int score = minimax(aiMask | bit, humanMask, false, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, table);
+                if (score > bestScore) {
+                    bestScore = score;
+                    move = cell;
+                }
+            }
+        }
+        return move;
+    }
+
+    // Best cell for the side to move looking at most maxDepth plies ahead; positions
+    // past the horizon count as draws. Ties go to the lowest cell.
+    public static int depthLimitedMove(int xMask, int oMask, int maxDepth) {
+        if (winner(xMask, oMask) != NONE) return -1;
+        boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        int me = xToMove ? xMask : oMask;
+        int opponent = xToMove ? oMask : xMask;
+        int empty = ~(xMask | oMask) & FULL;
+
+        int bestScore = Integer.MIN_VALUE;
+        int move = -1;
+        for (int bits = empty; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            int score = -negamax(opponent, me | bit, maxDepth - 1, 1, -100, 100);
+            if (score > bestScore) {
+                bestScore = score;
+                move = Integer.numberOfTrailingZeros(bit);
+            }
+        }
+        return move;
+    }
+
+    // Score of every empty cell for the side to move with the same horizon as
+    // depthLimitedMove, written to scores[cell]; other entries are left alone
+    public static void depthLimitedScores(int xMask, int oMask, int maxDepth, int[] scores) {
+        boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        int me = xToMove ? xMask : oMask;
+        int opponent = xToMove ? oMask : xMask;
+        for (int bits = ~(xMask | oMask) & FULL; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            scores[Integer.numberOfTrailingZeros(bit)] = -negamax(opponent, me | bit, maxDepth - 1, 1, -100, 100);
+        }
+    }
+
+    // Same score scale as minimax, seen from the side to move
+    private static int negamax(int me, int opponent, int depth, int ply, int alpha, int beta) {
+        if (hasLine(opponent)) return ply - 11;
+        int empty = ~(me | opponent) & FULL;
+        if (empty == 0 || depth <= 0) return 0;
+
+        int bestScore = Integer.MIN_VALUE;
+        for (int bits = empty; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            int score = -negamax(opponent, me | bit, depth - 1, ply + 1, -beta, -alpha);
+            if (score > bestScore) bestScore = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        return bestScore;
+    }
+
+    static int minimax(int aiMask, int humanMask, boolean isMaximizing, int alpha, int beta, int depth,
+            TranspositionTable table) {
+        if (hasLine(aiMask)) return 10 - depth;
+        if (hasLine(humanMask)) return depth - 10;
+        int empty = ~(aiMask | humanMask) & FULL;
+        if (empty == 0) return 0;
+
+        // The table stores scores from the side to move, relative to this node
+        int key = isMaximizing ? TranspositionTable.key(aiMask, humanMask) : TranspositionTable.key(humanMask, aiMask);
+        int entry = table.probe(key);
+        if (entry != 0) {
+            int stored = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (!isMaximizing) {
+                stored = -stored;
+                if (bound != TranspositionTable.EXACT) {
+                    bound = bound == TranspositionTable.LOWER ? TranspositionTable.UPPER : TranspositionTable.LOWER;
+                }
+            }
+            int score = fromNodeScore(stored, depth);
+            if (bound == TranspositionTable.EXACT) return score;
+            if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+            else beta = Math.min(beta, score);
+            if (beta <= alpha) return score;
+        }
+
+        int bestScore;
+        if (isMaximizing) {
+            bestScore = Integer.MIN_VALUE;
+            for (int bits = empty; bits != 0; bits &= bits - 1) {
+                int bit = bits & -bits;
+                int score = minimax(aiMask | bit, humanMask, false, Math.max(alpha, bestScore), beta, depth + 1, table);
+                bestScore = Math.max(score, bestScore);
+                if (beta <= bestScore) break;
+            }
+        } else {
+            bestScore = Integer.MAX_VALUE;
+            for (int bits = empty; bits != 0; bits &= bits - 1) {
+                int bit = bits & -bits;
+                int score = minimax(aiMask, humanMask | bit, true, alpha, Math.min(beta, bestScore), depth + 1, table);
+                bestScore = Math.min(score, bestScore);
+                if (bestScore <= alpha) break;
+            }
+        }
+
+        int bound = bestScore <= alpha ? TranspositionTable.UPPER
+                : bestScore >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        int nodeScore = toNodeScore(bestScore, depth);
+        if (isMaximizing) {
+            table.store(key, nodeScore, bound);
+        } else {
+            table.store(key, -nodeScore, bound == TranspositionTable.EXACT ? bound
+                    : bound == TranspositionTable.LOWER ? TranspositionTable.UPPER : TranspositionTable.LOWER);
+        }
+        return bestScore;
+    }
+
+    // Search scores count plies from the root; the table counts them from the node
+    private static int toNodeScore(int score, int depth) {
+        if (score > 0) return score + depth;
+        if (score < 0) return score - depth;
+        return 0;
+    }
+
+    private static int fromNodeScore(int score, int depth) {
+        if (score > 0) return score - depth;
+        if (score < 0) return score + depth;
+        return 0;
+    }
+}
@@ -0,0 +1,43 @@
+package tictactoe.engine;
+
+// One change of game state, as published on a GameEventStream. Events are
+// immutable records, so a single instance is handed to every observer, and
+// observers tell the kinds apart by type. toString() is the event's protocol
+// line, as sent to GameServer spectators.
+public sealed interface GameEvent {
+    long game();
+
+    // ply counts from 1 for the first move of the game
+    record MoveMade(long game, int boardSize, int ply, int player, int cell) implements GameEvent {
+        @Override
+        public String toString() {
+            return "MOVED " + game + " " + side(player) + " " + cell;
+        }
+    }
+
+    // winner is X, O, TIE, or NONE for a game abandoned before it finished
+    record GameOver(long game, int winner) implements GameEvent {
+        @Override
+        public String toString() {
+            return "OVER " + game + " " + (winner == GameEngine.NONE ? "ABANDONED" : side(winner));
+        }
+    }
+
+    record ScoreUpdated(long game, int xWins, int oWins, int ties) implements GameEvent {
+        @Override
+        public String toString() {
+            return "SCORE " + game + " " + xWins + " " + oWins + " " + ties;
+        }
+    }
+
+    record AiThinking(long game, int player, boolean thinking) implements GameEvent {
+        @Override
+        public String toString() {
+            return "THINKING " + game + " " + side(player) + " " + (thinking ? 1 : 0);
+        }
+    }
+
+    private static String side(int player) {
+        return player == GameEngine.X ? "X" : player == GameEngine.O ? "O" : "TIE";
+    }
+}
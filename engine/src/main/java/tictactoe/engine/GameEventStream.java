@@ -0,0 +1,265 @@
+package tictactoe.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Fans GameEvents out to any number of observers through a fixed ring buffer.
+// A publisher claims a sequence with one atomic increment and writes its slot
+// once the publisher a lap before it has finished with that slot; it never
+// locks and never touches observers, and only waits for another publisher
+// mid-write or for a lossless subscription that has fallen a whole ring
+// behind. Dispatcher threads deliver to observers in batches of up to
+// batchSize events, each observer always on the same dispatcher, so a slow
+// observer only delays its own shard. A lossy subscription that falls a ring
+// behind skips to the oldest event still in the ring and is told how many it
+// missed; a lossless one holds the publishers back instead, which is the
+// backpressure loggers and stores want.
+//
+// Publishers include the Swing Event Dispatch Thread and a server match's
+// monitor, so the hold is bounded: a lossless subscription that keeps a
+// publisher waiting LOSSLESS_WAIT_NANOS is demoted to lossy and from then on
+// hears about what it misses through onMissed.
+public final class GameEventStream implements AutoCloseable {
+    public interface Observer {
+        // The list is reused after the call returns
+        void onEvents(List<GameEvent> batch);
+
+        // Events overwritten before this observer read them; lossy and demoted
+        // lossless subscriptions only
+        default void onMissed(long count) {
+        }
+    }
+
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    private static final long PUBLISH_WAIT_NANOS = 50_000L;
+    static final long LOSSLESS_WAIT_NANOS = 100_000_000L;
+    private static final long WRITING = Long.MIN_VALUE;
+
+    private static final class Slot {
+        // The sequence of the event in the slot, WRITING while it is being rewritten;
+        // starts a lap before the first event so the first publisher need not wait
+        volatile long sequence;
+        volatile GameEvent event;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final AtomicLong next = new AtomicLong();
+    private final List<Subscription> lossless = new CopyOnWriteArrayList<>();
+    private final Dispatcher[] dispatchers;
+    private int subscriptions;
+    private volatile boolean closed;
+
+    public GameEventStream(int capacity, int batchSize, int dispatcherThreads) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        if (dispatcherThreads < 1) throw new IllegalArgumentException("Need at least one dispatcher");
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            slots[i].sequence = i - capacity;
+        }
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.dispatchers = new Dispatcher[dispatcherThreads];
+        for (int i = 0; i < dispatcherThreads; i++) {
+            dispatchers[i] = new Dispatcher("game-events-" + i);
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getPublished() {
+        return next.get();
+    }
+
+    // Delivers events published from now on; lossless observers slow publishers down
+    // rather than miss events
+    public synchronized Subscription subscribe(Observer observer, boolean lossless) {
+        if (closed) throw new IllegalStateException("Stream is closed");
+        Dispatcher dispatcher = dispatchers[subscriptions++ % dispatchers.length];
+        Subscription subscription = new Subscription(observer, dispatcher, next.get());
+        if (lossless) this.lossless.add(subscription);
+        dispatcher.subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void publish(GameEvent event) {
+        if (closed) return;
+        write(claim(), event);
+    }
+
+    // publish in two steps, so tests can hold a publisher between them
+    long claim() {
+        return next.getAndIncrement();
+    }
+
+    void write(long sequence, GameEvent event) {
+        long overwritten = sequence - slots.length;
+        if (overwritten >= 0 && !lossless.isEmpty()) awaitLossless(overwritten);
+
+        // A publisher a lap behind that was delayed between claiming its sequence and
+        // writing must not land after us and leave its older event in the slot
+        Slot slot = slots[(int) sequence & mask];
+        for (int spins = 0; slot.sequence != overwritten && !closed; spins++) {
+            // That publisher may itself be held back by a lossless subscription
+            if (spins < 100) Thread.onSpinWait();
+            else LockSupport.parkNanos(this, PUBLISH_WAIT_NANOS);
+        }
+        slot.sequence = WRITING;
+        slot.event = event;
+        slot.sequence = sequence;
+        for (Dispatcher dispatcher : dispatchers) {
+            if (dispatcher.idle) LockSupport.unpark(dispatcher.thread);
+        }
+    }
+
+    // Waits until every lossless subscription has read the event about to be overwritten,
+    // demoting the ones still behind after LOSSLESS_WAIT_NANOS
+    private void awaitLossless(long overwritten) {
+        long deadline = System.nanoTime() + LOSSLESS_WAIT_NANOS;
+        while (!closed) {
+            long slowest = Long.MAX_VALUE;
+            for (Subscription subscription : lossless) {
+                slowest = Math.min(slowest, subscription.cursor);
+            }
+            if (slowest > overwritten) return;
+            if (System.nanoTime() - deadline > 0) {
+                for (Subscription subscription : lossless) {
+                    if (subscription.cursor > overwritten) continue;
+                    System.err.println("Lossless event observer fell behind and now skips events: "
+                            + subscription.observer);
+                    lossless.remove(subscription);
+                }
+                return;
+            }
+            for (Dispatcher dispatcher : dispatchers) LockSupport.unpark(dispatcher.thread);
+            LockSupport.parkNanos(this, PUBLISH_WAIT_NANOS);
+        }
+    }
+
+    // Stops the dispatchers; events still in the ring are not delivered
+    @Override
+    public void close() {
+        closed = true;
+        for (Dispatcher dispatcher : dispatchers) LockSupport.unpark(dispatcher.thread);
+    }
+
+    public final class Subscription {
+        private final Observer observer;
+        private final Dispatcher dispatcher;
+        private final List<GameEvent> batch = new ArrayList<>();
+        private volatile long cursor; // next sequence to deliver
+        private volatile boolean cancelled;
+        private volatile long missed;
+
+        private Subscription(Observer observer, Dispatcher dispatcher, long cursor) {
+            this.observer = observer;
+            this.dispatcher = dispatcher;
+            this.cursor = cursor;
+        }
+
+        // Events published but not yet delivered to this observer
+        public long getLag() {
+            return Math.max(0, next.get() - cursor);
+        }
+
+        public long getMissed() {
+            return missed;
+        }
+
+        // False for a lossy subscription and for a lossless one that was demoted
+        public boolean isLossless() {
+            return lossless.contains(this);
+        }
+
+        public void cancel() {
+            cancelled = true;
+            lossless.remove(this);
+            dispatcher.subscriptions.remove(this);
+        }
+
+        private boolean hasPending() {
+            return !cancelled && slots[(int) cursor & mask].sequence >= cursor;
+        }
+
+        // Delivers up to one batch; returns whether anything was delivered
+        private boolean drain() {
+            if (cancelled) return false;
+            long read = cursor;
+            long skipTo = -1;
+            while (batch.size() < batchSize) {
+                Slot slot = slots[(int) read & mask];
+                long sequence = slot.sequence;
+                if (sequence < read) break;
+                GameEvent event = slot.event;
+                if (sequence != read || slot.sequence != read) {
+                    // A publisher a whole ring ahead has overwritten this event
+                    long published = next.get();
+                    skipTo = Math.min(published, Math.max(read + 1, published - slots.length + batchSize));
+                    break;
+                }
+                batch.add(event);
+                read++;
+            }
+            try {
+                if (!batch.isEmpty()) observer.onEvents(batch);
+                if (skipTo >= 0) {
+                    missed += skipTo - read;
+                    observer.onMissed(skipTo - read);
+                    read = skipTo;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Event observer failed and was unsubscribed: " + e);
+                cancel();
+            } finally {
+                batch.clear();
+            }
+            boolean delivered = read != cursor;
+            cursor = read;
+            return delivered;
+        }
+    }
+
+    private final class Dispatcher implements Runnable {
+        final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        final Thread thread;
+        volatile boolean idle;
+
+        Dispatcher(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                boolean delivered = false;
+                for (Subscription subscription : subscriptions) {
+                    delivered |= subscription.drain();
+                }
+                if (delivered) continue;
+                // Publishers check idle after writing, so one of the two sees the other
+                idle = true;
+                if (!hasPending()) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                idle = false;
+            }
+        }
+
+        private boolean hasPending() {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.hasPending()) return true;
+            }
+            return false;
+        }
+    }
+}
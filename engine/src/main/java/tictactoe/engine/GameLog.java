@@ -0,0 +1,315 @@
+package tictactoe.engine;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+// Append-only log of finished 3x3 games in a memory-mapped file. Each game is a
+// single 8-byte record, so game N sits at a fixed offset and a scan is a plain
+// walk over longs. Appends only write into the mapping; the OS flushes the
+// pages, and close() forces them out. An open log holds an exclusive lock on
+// the file, so a second process (or a second open in this one) fails instead
+// of appending over the same records.
+//
+// File: magic (8 bytes), game count (8 bytes), then one record per game.
+// Record: bits 0-35 moves (one nibble per ply), 36-39 move count, 40-41 result.
+//
+//   java tictactoe.engine.GameLog <file> [stats | show <game> | tail <count>]
+public final class GameLog implements AutoCloseable {
+    private static final long MAGIC = 0x5454544C4F473031L; // "TTTLOG01"
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 8;
+    private static final int COUNT_OFFSET = 8;
+    private static final int MIN_CAPACITY = 1 << 16;
+    private static final int COUNT_SHIFT = 36;
+    private static final int RESULT_SHIFT = 40;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long count;
+    private long xWins;
+    private long oWins;
+    private long ties;
+
+    private GameLog(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    // Opens or creates the log and rebuilds the totals from the records
+    public static GameLog open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GameLog log = new GameLog(path, channel);
+        try {
+            // Released when the channel closes
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) throw new IOException(path + " is already open in another process or log");
+            log.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return log;
+    }
+
+    // The log the game window records into: -Dttt.log, else ~/.tictactoe/games.log
+    public static Path defaultPath() {
+        String configured = System.getProperty("ttt.log");
+        if (configured != null) return Paths.get(configured);
+        return Paths.get(System.getProperty("user.home"), ".tictactoe", "games.log");
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            map(MIN_CAPACITY);
+            buffer.putLong(0, MAGIC);
+            buffer.putLong(COUNT_OFFSET, 0);
+            return;
+        }
+        map(fileSize);
+        if (fileSize < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IOException(path + " is not a game log");
+        }
+        count = buffer.getLong(COUNT_OFFSET);
+        if (count < 0 || HEADER_BYTES + count * RECORD_BYTES > fileSize) {
+            throw new IOException(path + " is truncated");
+        }
+        for (long i = 0; i < count; i++) {
+            countResult(result(buffer.getLong(offset(i))));
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) throw new IOException(path + " is full");
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int offset(long index) {
+        return (int) (HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    private void countResult(int result) {
+        if (result == GameEngine.X) xWins++;
+        else if (result == GameEngine.O) oWins++;
+        else ties++;
+    }
+
+    private void ensureCapacity(long games) throws IOException {
+        long needed = HEADER_BYTES + games * RECORD_BYTES;
+        if (needed <= buffer.capacity()) return;
+        long capacity = Math.max(needed, Math.min((long) buffer.capacity() * 2, Integer.MAX_VALUE));
+        map(capacity);
+    }
+
+    public synchronized long append(long record) throws IOException {
+        ensureCapacity(count + 1);
+        buffer.putLong(offset(count), record);
+        countResult(result(record));
+        // The count is bumped last so a torn append is simply not there
+        buffer.putLong(COUNT_OFFSET, ++count);
+        return count - 1;
+    }
+
+    // Appends records[0..length) in one synchronized block, for bulk writers like SelfPlay
+    public synchronized void append(long[] records, int length) throws IOException {
+        if (length < 0 || length > records.length) {
+            throw new IllegalArgumentException("Length " + length + " outside 0.." + records.length);
+        }
+        ensureCapacity(count + length);
+        for (int i = 0; i < length; i++) {
+            buffer.putLong(offset(count + i), records[i]);
+            countResult(result(records[i]));
+        }
+        count += length;
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    // Records a finished classic game straight from the board
+    public long append(GridBoard board) throws IOException {
+        if (!board.getVariant().isClassic()) {
+            throw new IllegalArgumentException("Only 3x3 games fit a record, not " + board.getVariant());
+        }
+        if (!board.isGameOver()) throw new IllegalArgumentException("Game is not finished");
+        long moves = 0;
+        for (int ply = 0; ply < board.getMoveCount(); ply++) {
+            moves |= (long) board.getMove(ply) << (4 * ply);
+        }
+        return append(record(moves, board.getMoveCount(), board.getWinner()));
+    }
+
+    // Observer for a lossless GameEventStream subscription that appends every finished
+    // 3x3 game, so recording happens on the stream's dispatcher rather than the game loop
+    public GameEventStream.Observer recorder() {
+        return new Recorder();
+    }
+
+    private final class Recorder implements GameEventStream.Observer {
+        // Game id -> {moves, move count} for 3x3 games still in progress
+        private final Map<Long, long[]> playing = new HashMap<>();
+        private long[] finished = new long[16];
+
+        @Override
+        public void onEvents(List<GameEvent> batch) {
+            int length = 0;
+            for (GameEvent event : batch) {
+                if (event instanceof GameEvent.MoveMade move && move.boardSize() == 3) {
+                    long[] game = playing.computeIfAbsent(move.game(), id -> new long[2]);
+                    int ply = move.ply() - 1;
+                    if (ply != game[1] || ply >= GameEngine.CELLS) {
+                        // Joined mid-game; the moves before this one were never seen
+                        playing.remove(move.game());
+                        continue;
+                    }
+                    game[0] |= (long) move.cell() << (4 * ply);
+                    game[1] = ply + 1;
+                } else if (event instanceof GameEvent.GameOver over) {
+                    long[] game = playing.remove(over.game());
+                    if (game == null || over.winner() == GameEngine.NONE) continue;
+                    if (length == finished.length) finished = Arrays.copyOf(finished, length * 2);
+                    finished[length++] = record(game[0], (int) game[1], over.winner());
+                }
+            }
+            if (length == 0) return;
+            try {
+                append(finished, length);
+            } catch (IOException e) {
+                System.err.println("Could not record games: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    public synchronized long get(long game) {
+        if (game < 0 || game >= count) throw new IndexOutOfBoundsException("Game " + game + " of " + count);
+        return buffer.getLong(offset(game));
+    }
+
+    // Visits records [from, to) in order
+    public synchronized void scan(long from, long to, LongConsumer consumer) {
+        for (long i = Math.max(0, from); i < Math.min(to, count); i++) {
+            consumer.accept(buffer.getLong(offset(i)));
+        }
+    }
+
+    // Plays game N into the board from the empty position
+    public void replay(long game, GridBoard board) {
+        long record = get(game);
+        board.reset();
+        for (int ply = 0; ply < moveCount(record); ply++) {
+            board.play(move(record, ply));
+        }
+    }
+
+    public synchronized long getXWins() {
+        return xWins;
+    }
+
+    public synchronized long getOWins() {
+        return oWins;
+    }
+
+    public synchronized long getTies() {
+        return ties;
+    }
+
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // moves holds one cell per nibble, first move in the lowest
+    public static long record(long moves, int moveCount, int result) {
+        return moves | (long) moveCount << COUNT_SHIFT | (long) result << RESULT_SHIFT;
+    }
+
+    public static int moveCount(long record) {
+        return (int) (record >>> COUNT_SHIFT) & 0xF;
+    }
+
+    public static int move(long record, int ply) {
+        return (int) (record >>> (4 * ply)) & 0xF;
+    }
+
+    public static int result(long record) {
+        return (int) (record >>> RESULT_SHIFT) & 0x3;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java tictactoe.engine.GameLog <file> [stats | show <game> | tail <count>]");
+            System.exit(2);
+        }
+        String command = args.length > 1 ? args[1] : "stats";
+        try (GameLog log = open(Paths.get(args[0]))) {
+            switch (command) {
+                case "stats":
+                    System.out.printf("games=%d xWins=%d oWins=%d ties=%d%n",
+                            log.size(), log.getXWins(), log.getOWins(), log.getTies());
+                    break;
+                case "show":
+                    print(log, Long.parseLong(args[2]));
+                    break;
+                case "tail":
+                    long size = log.size();
+                    for (long game = Math.max(0, size - Long.parseLong(args[2])); game < size; game++) {
+                        print(log, game);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        }
+    }
+
+    private static void print(GameLog log, long game) {
+        GridBoard board = new GridBoard(Variant.CLASSIC);
+        log.replay(game, board);
+        StringBuilder moves = new StringBuilder();
+        for (int ply = 0; ply < board.getMoveCount(); ply++) {
+            if (ply > 0) moves.append(' ');
+            moves.append(board.getMove(ply));
+        }
+        int result = board.getWinner();
+        System.out.println("game " + game + ": " + moves + " -> "
+                + (result == GameEngine.X ? "X" : result == GameEngine.O ? "O" : "Tie"));
+        for (int r = 0; r < 3; r++) {
+            StringBuilder row = new StringBuilder("  ");
+            for (int c = 0; c < 3; c++) {
+                int owner = board.owner(r * 3 + c);
+                row.append(owner == GameEngine.X ? 'X' : owner == GameEngine.O ? 'O' : '.');
+            }
+            System.out.println(row);
+        }
+    }
+}
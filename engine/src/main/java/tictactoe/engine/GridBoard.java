@@ -0,0 +1,218 @@
+package tictactoe.engine;
+
+import java.util.SplittableRandom;
+
+// N x N board for K-in-a-row variants. Moves are made and undone in place, the
+// Zobrist hash is kept up to date incrementally, and a win is detected by
+// looking only at the four lines through the last move.
+public final class GridBoard {
+    // Row and column steps for horizontal, vertical, diagonal and anti-diagonal lines
+    static final int[] DR = {0, 1, 1, 1};
+    static final int[] DC = {1, 0, 1, -1};
+
+    private static final long[][] ZOBRIST = new long[3][19 * 19];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x7A7A7A7AL);
+        for (int player = 1; player <= 2; player++) {
+            for (int cell = 0; cell < ZOBRIST[player].length; cell++) {
+                ZOBRIST[player][cell] = random.nextLong();
+            }
+        }
+    }
+
+    private final Variant variant;
+    private final int size;
+    private final int winLength;
+    private final byte[] cells;
+    private final int[] moves;
+    private int moveCount;
+    private int winner = GameEngine.NONE;
+    private long hash;
+
+    // Line direction d (0..3) as a row and column step, for evaluators outside the board
+    public static int rowStep(int d) {
+        return DR[d];
+    }
+
+    public static int colStep(int d) {
+        return DC[d];
+    }
+
+    public GridBoard(Variant variant) {
+        this.variant = variant;
+        this.size = variant.getSize();
+        this.winLength = variant.getWinLength();
+        this.cells = new byte[variant.getCells()];
+        this.moves = new int[variant.getCells()];
+    }
+
+    public GridBoard copy() {
+        GridBoard copy = new GridBoard(variant);
+        for (int i = 0; i < moveCount; i++) {
+            copy.play(moves[i]);
+        }
+        return copy;
+    }
+
+    public void reset() {
+        while (moveCount > 0) undo();
+    }
+
+    public Variant getVariant() {
+        return variant;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int ply) {
+        return moves[ply];
+    }
+
+    public int lastMove() {
+        return moveCount == 0 ? -1 : moves[moveCount - 1];
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    // Zobrist hash of this position after rotating or reflecting it by Symmetry transform t
+    public long symmetricHash(int t) {
+        int[] map = Symmetry.cellMaps(size)[t];
+        long symmetric = 0;
+        for (int ply = 0; ply < moveCount; ply++) {
+            int cell = moves[ply];
+            symmetric ^= ZOBRIST[cells[cell]][map[cell]];
+        }
+        return symmetric;
+    }
+
+    // Smallest of the 8 symmetric hashes, the same for every rotation and reflection
+    // of the position; computed on demand so play and undo stay cheap
+    public long canonicalHash() {
+        return symmetricHash(canonicalSymmetry());
+    }
+
+    // A transform taking this position to its canonical image
+    public int canonicalSymmetry() {
+        int best = 0;
+        long bestHash = hash;
+        for (int t = 1; t < Symmetry.COUNT; t++) {
+            long symmetric = symmetricHash(t);
+            if (symmetric < bestHash) {
+                bestHash = symmetric;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    public int owner(int cell) {
+        return cells[cell];
+    }
+
+    public boolean isEmpty(int cell) {
+        return cells[cell] == GameEngine.NONE;
+    }
+
+    // X always moves first
+    public int currentPlayer() {
+        return (moveCount & 1) == 0 ? GameEngine.X : GameEngine.O;
+    }
+
+    public boolean isGameOver() {
+        return winner != GameEngine.NONE;
+    }
+
+    // NONE while the game is running, otherwise X, O or TIE
+    public int getWinner() {
+        return winner;
+    }
+
+    public void play(int cell) {
+        int player = currentPlayer();
+        cells[cell] = (byte) player;
+        moves[moveCount++] = cell;
+        hash ^= ZOBRIST[player][cell];
+        if (lineLengthThrough(cell, player) >= winLength) {
+            winner = player;
+        } else if (moveCount == cells.length) {
+            winner = GameEngine.TIE;
+        }
+    }
+
+    public void undo() {
+        int cell = moves[--moveCount];
+        hash ^= ZOBRIST[cells[cell]][cell];
+        cells[cell] = GameEngine.NONE;
+        winner = GameEngine.NONE;
+    }
+
+    // Longest run of the player's stones through the cell in any direction
+    public int lineLengthThrough(int cell, int player) {
+        int row = cell / size;
+        int col = cell % size;
+        int best = 0;
+        for (int d = 0; d < 4; d++) {
+            int length = 1 + count(row, col, DR[d], DC[d], player) + count(row, col, -DR[d], -DC[d], player);
+            if (length > best) best = length;
+        }
+        return best;
+    }
+
+    private int count(int row, int col, int dr, int dc, int player) {
+        int length = 0;
+        int r = row + dr;
+        int c = col + dc;
+        while (r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == player) {
+            length++;
+            r += dr;
+            c += dc;
+        }
+        return length;
+    }
+
+    // Cells of the winning run through the last move, or an empty array
+    public int[] winningCells() {
+        if (winner != GameEngine.X && winner != GameEngine.O) return new int[0];
+        int cell = lastMove();
+        int row = cell / size;
+        int col = cell % size;
+        for (int d = 0; d < 4; d++) {
+            int back = count(row, col, -DR[d], -DC[d], winner);
+            int length = 1 + back + count(row, col, DR[d], DC[d], winner);
+            if (length >= winLength) {
+                int[] line = new int[length];
+                for (int i = 0; i < length; i++) {
+                    line[i] = (row + (i - back) * DR[d]) * size + col + (i - back) * DC[d];
+                }
+                return line;
+            }
+        }
+        return new int[0];
+    }
+
+    // Bit mask of the player's stones; only meaningful for boards of up to 31 cells
+    public int mask(int player) {
+        int mask = 0;
+        for (int cell = 0; cell < cells.length && cell < 31; cell++) {
+            if (cells[cell] == player) mask |= 1 << cell;
+        }
+        return mask;
+    }
+}
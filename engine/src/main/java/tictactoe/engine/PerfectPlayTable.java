@@ -0,0 +1,108 @@
+package tictactoe.engine;
+
+// Solved 3x3 game: every position reachable from the empty board, keyed by its
+// base-3 index, with the best move for the side to move, the minimax score and
+// the number of plies until the game ends under perfect play.
+public final class PerfectPlayTable {
+    public static final int POSITIONS = 19683; // 3^9
+    public static final int NO_MOVE = -1;
+
+    // Packed entry: bits 0-3 move (15 = none), 4-8 score + 16, 9-12 distance, 13 reachable
+    private static final int MOVE_MASK = 0xF;
+    private static final int SCORE_SHIFT = 4;
+    private static final int SCORE_OFFSET = 16;
+    private static final int DISTANCE_SHIFT = 9;
+    private static final int REACHABLE = 1 << 13;
+
+    private static final int[] BASE3 = new int[512];
+    private static final short[] TABLE = new short[POSITIONS];
+    private static final int reachableCount;
+
+    static {
+        for (int mask = 1; mask < 512; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            BASE3[mask] = BASE3[mask & (mask - 1)] + pow3(low);
+        }
+        solve(0, 0);
+        int count = 0;
+        for (short entry : TABLE) {
+            if ((entry & REACHABLE) != 0) count++;
+        }
+        reachableCount = count;
+    }
+
+    private PerfectPlayTable() {
+    }
+
+    public static int index(int xMask, int oMask) {
+        return BASE3[xMask] + 2 * BASE3[oMask];
+    }
+
+    public static boolean isReachable(int xMask, int oMask) {
+        return (TABLE[index(xMask, oMask)] & REACHABLE) != 0;
+    }
+
+    // Best cell for the side to move, or NO_MOVE if the game is over
+    public static int bestMove(int xMask, int oMask) {
+        int move = TABLE[index(xMask, oMask)] & MOVE_MASK;
+        return move == MOVE_MASK ? NO_MOVE : move;
+    }
+
+    // Same scale as GameEngine.minimax: 11 - plies for a win, plies - 11 for a loss, 0 for a draw
+    public static int score(int xMask, int oMask) {
+        return ((TABLE[index(xMask, oMask)] >> SCORE_SHIFT) & 0x1F) - SCORE_OFFSET;
+    }
+
+    // Plies until the game ends when both sides play perfectly
+    public static int distance(int xMask, int oMask) {
+        return (TABLE[index(xMask, oMask)] >> DISTANCE_SHIFT) & 0xF;
+    }
+
+    public static int reachablePositions() {
+        return reachableCount;
+    }
+
+    private static int solve(int xMask, int oMask) {
+        int index = index(xMask, oMask);
+        if ((TABLE[index] & REACHABLE) != 0) return TABLE[index];
+
+        int entry;
+        if (GameEngine.hasLine(xMask) || GameEngine.hasLine(oMask)) {
+            // The player who just moved has won
+            entry = pack(MOVE_MASK, -11, 0);
+        } else if ((xMask | oMask) == GameEngine.FULL) {
+            entry = pack(MOVE_MASK, 0, 0);
+        } else {
+            boolean xToMove = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+            int empty = ~(xMask | oMask) & GameEngine.FULL;
+            int bestMove = MOVE_MASK;
+            int bestScore = Integer.MIN_VALUE;
+            int bestDistance = 0;
+            for (int bits = empty; bits != 0; bits &= bits - 1) {
+                int bit = bits & -bits;
+                int child = xToMove ? solve(xMask | bit, oMask) : solve(xMask, oMask | bit);
+                int childScore = ((child >> SCORE_SHIFT) & 0x1F) - SCORE_OFFSET;
+                // Negate and move one ply further away from the result
+                int score = childScore > 0 ? 1 - childScore : childScore < 0 ? -childScore - 1 : 0;
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = Integer.numberOfTrailingZeros(bit);
+                    bestDistance = ((child >> DISTANCE_SHIFT) & 0xF) + 1;
+                }
+            }
+            entry = pack(bestMove, bestScore, bestDistance);
+        }
+        TABLE[index] = (short) entry;
+        return entry;
+    }
+
+    private static int pack(int move, int score, int distance) {
+        return REACHABLE | move | ((score + SCORE_OFFSET) << SCORE_SHIFT) | (distance << DISTANCE_SHIFT);
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) result *= 3;
+        return result;
+    }
+}
@@ -0,0 +1,214 @@
+package tictactoe.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Bulk analysis of 3x3 positions: score, best move, plies to the result and the
+// result under perfect play. Every legal position is already in the solved
+// PerfectPlayTable, which every thread shares read-only, so analysing one is a
+// lookup. Input is streamed in batches that are analysed in parallel and
+// written back in input order, with a bounded number of batches in flight, so
+// memory use does not depend on the input size.
+//
+// A position is a 9-character string in row order (X, O and . or -) or a
+// packed int, xMask | oMask << 9. Output lines are
+//   position,score,bestMove,distance,result
+// with the score for the side to move (11 - plies to a win, plies - 11 to a loss,
+// 0 for a draw), bestMove -1 when the game is over, and result X, O, TIE or INVALID.
+//
+//   java tictactoe.engine.PositionAnalyzer [--input file|-] [--output file|-] [--threads N] [--batch 65536]
+public final class PositionAnalyzer {
+    public static final int INVALID = -1;
+
+    // Packed analysis: bits 0-3 best move + 1, 4-8 score + 16, 9-12 distance, 13-14 result
+    private static final int SCORE_SHIFT = 4;
+    private static final int SCORE_OFFSET = 16;
+    private static final int DISTANCE_SHIFT = 9;
+    private static final int RESULT_SHIFT = 13;
+
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxInFlight;
+    private long positions;
+    private long elapsedNanos;
+
+    public PositionAnalyzer(ExecutorService executor, int batchSize, int maxInFlight) {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        if (maxInFlight <= 0) throw new IllegalArgumentException("In-flight batches must be positive");
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // xMask | oMask << 9 for a 9-character board or a packed int, or INVALID
+    public static int parse(String text) {
+        text = text.trim();
+        if (text.length() == GameEngine.CELLS && !Character.isDigit(text.charAt(0))) {
+            int xMask = 0;
+            int oMask = 0;
+            for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+                char c = text.charAt(cell);
+                if (c == 'X' || c == 'x') xMask |= 1 << cell;
+                else if (c == 'O' || c == 'o') oMask |= 1 << cell;
+                else if (c != '.' && c != '-') return INVALID;
+            }
+            return xMask | oMask << GameEngine.CELLS;
+        }
+        try {
+            int packed = Integer.parseInt(text);
+            return packed >= 0 && packed < 1 << (2 * GameEngine.CELLS) ? packed : INVALID;
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+
+    // Packed analysis of a parsed position, or INVALID for positions that cannot
+    // occur in a game (overlapping stones, wrong counts, play after a win)
+    public static int analyze(int position) {
+        if (position == INVALID) return INVALID;
+        int xMask = position & GameEngine.FULL;
+        int oMask = position >>> GameEngine.CELLS;
+        int xCount = Integer.bitCount(xMask);
+        int oCount = Integer.bitCount(oMask);
+        if ((xMask & oMask) != 0 || xCount < oCount || xCount > oCount + 1
+                || !PerfectPlayTable.isReachable(xMask, oMask)) {
+            return INVALID;
+        }
+        int move = PerfectPlayTable.bestMove(xMask, oMask);
+        int score = PerfectPlayTable.score(xMask, oMask);
+        int toMove = xCount == oCount ? GameEngine.X : GameEngine.O;
+        int result = score > 0 ? toMove : score < 0 ? GameEngine.opponent(toMove) : GameEngine.TIE;
+        return (move + 1) | (score + SCORE_OFFSET) << SCORE_SHIFT
+                | PerfectPlayTable.distance(xMask, oMask) << DISTANCE_SHIFT | result << RESULT_SHIFT;
+    }
+
+    // Analyses positions[0..count) into results; for callers that already hold packed positions
+    public static void analyze(int[] positions, int count, int[] results) {
+        for (int i = 0; i < count; i++) {
+            results[i] = analyze(positions[i]);
+        }
+    }
+
+    public static int bestMove(int analysis) {
+        return (analysis & 0xF) - 1;
+    }
+
+    public static int score(int analysis) {
+        return ((analysis >> SCORE_SHIFT) & 0x1F) - SCORE_OFFSET;
+    }
+
+    public static int distance(int analysis) {
+        return (analysis >> DISTANCE_SHIFT) & 0xF;
+    }
+
+    // X, O or TIE
+    public static int result(int analysis) {
+        return (analysis >> RESULT_SHIFT) & 0x3;
+    }
+
+    static void format(String input, int analysis, StringBuilder out) {
+        out.append(input.trim()).append(',');
+        if (analysis == INVALID) {
+            out.append(",,,INVALID\n");
+            return;
+        }
+        int result = result(analysis);
+        out.append(score(analysis)).append(',').append(bestMove(analysis)).append(',')
+                .append(distance(analysis)).append(',')
+                .append(result == GameEngine.X ? "X" : result == GameEngine.O ? "O" : "TIE").append('\n');
+    }
+
+    // Reads positions until the end of the input and writes one line per position; returns the count
+    public long analyze(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        positions = 0;
+        ArrayDeque<Future<String>> inFlight = new ArrayDeque<>();
+        while (true) {
+            String[] batch = new String[batchSize];
+            int count = 0;
+            String line;
+            while (count < batchSize && (line = in.readLine()) != null) {
+                if (!line.isBlank()) batch[count++] = line;
+            }
+            if (count == 0) break;
+            int size = count;
+            inFlight.add(executor.submit(() -> analyzeBatch(batch, size)));
+            positions += count;
+            // Writing the oldest batch before reading more keeps memory bounded
+            if (inFlight.size() >= maxInFlight) out.write(take(inFlight));
+            if (count < batchSize) break;
+        }
+        while (!inFlight.isEmpty()) out.write(take(inFlight));
+        out.flush();
+        elapsedNanos = System.nanoTime() - start;
+        return positions;
+    }
+
+    private static String analyzeBatch(String[] lines, int count) {
+        StringBuilder out = new StringBuilder(count * 24);
+        for (int i = 0; i < count; i++) {
+            format(lines[i], analyze(parse(lines[i])), out);
+        }
+        return out.toString();
+    }
+
+    private static String take(ArrayDeque<Future<String>> inFlight) throws InterruptedException {
+        try {
+            return inFlight.poll().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analysis batch failed", e.getCause());
+        }
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public long positionsPerSecond() {
+        return elapsedNanos == 0 ? 0 : positions * 1_000_000_000L / elapsedNanos;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String input = "-";
+        String output = "-";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = 65536;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--input": input = args[i + 1]; break;
+                case "--output": output = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--batch": batch = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (BufferedReader in = input.equals("-")
+                     ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                     : Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+             Writer out = output.equals("-")
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                     : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            PositionAnalyzer analyzer = new PositionAnalyzer(executor, batch, threads * 2);
+            analyzer.analyze(in, out);
+            // Stats go to stderr so they never mix with results on stdout
+            System.err.printf("positions=%d positions/s=%d threads=%d%n",
+                    analyzer.getPositions(), analyzer.positionsPerSecond(), threads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
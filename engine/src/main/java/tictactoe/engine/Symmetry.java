@@ -0,0 +1,85 @@
+package tictactoe.engine;
+
+// The 8 rotations and reflections of the 3x3 board (the dihedral group D4),
+// applied to 9-bit cell masks through precomputed lookup tables. cellMaps
+// gives the same transforms for N x N boards.
+public final class Symmetry {
+    public static final int COUNT = 8;
+
+    // CELL_MAP[t][cell] is where the cell lands under transform t
+    private static final int[][] CELL_MAP = {
+        {0, 1, 2, 3, 4, 5, 6, 7, 8}, // identity
+        {2, 5, 8, 1, 4, 7, 0, 3, 6}, // rotate 90
+        {8, 7, 6, 5, 4, 3, 2, 1, 0}, // rotate 180
+        {6, 3, 0, 7, 4, 1, 8, 5, 2}, // rotate 270
+        {2, 1, 0, 5, 4, 3, 8, 7, 6}, // mirror columns
+        {6, 7, 8, 3, 4, 5, 0, 1, 2}, // mirror rows
+        {0, 3, 6, 1, 4, 7, 2, 5, 8}, // main diagonal
+        {8, 5, 2, 7, 4, 1, 6, 3, 0}  // anti-diagonal
+    };
+
+    private static final short[][] MASK_MAP = new short[COUNT][512];
+    private static final int[][][] GRID_MAPS = new int[20][][];
+
+    static {
+        for (int t = 0; t < COUNT; t++) {
+            for (int mask = 0; mask < 512; mask++) {
+                int mapped = 0;
+                for (int cell = 0; cell < GameEngine.CELLS; cell++) {
+                    if ((mask & (1 << cell)) != 0) mapped |= 1 << CELL_MAP[t][cell];
+                }
+                MASK_MAP[t][mask] = (short) mapped;
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    public static int transform(int mask, int t) {
+        return MASK_MAP[t][mask];
+    }
+
+    public static int transformCell(int cell, int t) {
+        return CELL_MAP[t][cell];
+    }
+
+    // The transform that undoes t: the two quarter turns swap, the rest undo themselves
+    public static int inverse(int t) {
+        return t == 1 ? 3 : t == 3 ? 1 : t;
+    }
+
+    // cellMaps(n)[t][cell] is where the cell of an n x n board lands under transform t,
+    // in the same order as the 3x3 table; built once per size
+    public static synchronized int[][] cellMaps(int size) {
+        if (GRID_MAPS[size] == null) {
+            int n = size - 1;
+            int[][] maps = new int[COUNT][size * size];
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    int cell = r * size + c;
+                    maps[0][cell] = cell;
+                    maps[1][cell] = c * size + (n - r);
+                    maps[2][cell] = (n - r) * size + (n - c);
+                    maps[3][cell] = (n - c) * size + r;
+                    maps[4][cell] = r * size + (n - c);
+                    maps[5][cell] = (n - r) * size + c;
+                    maps[6][cell] = c * size + r;
+                    maps[7][cell] = (n - c) * size + (n - r);
+                }
+            }
+            GRID_MAPS[size] = maps;
+        }
+        return GRID_MAPS[size];
+    }
+
+    // Smallest base-3 index over all 8 images of the position
+    public static int canonicalIndex(int firstMask, int secondMask) {
+        int best = Integer.MAX_VALUE;
+        for (int t = 0; t < COUNT; t++) {
+            int index = PerfectPlayTable.index(MASK_MAP[t][firstMask], MASK_MAP[t][secondMask]);
+            if (index < best) best = index;
+        }
+        return best;
+    }
+}
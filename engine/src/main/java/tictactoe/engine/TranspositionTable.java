@@ -0,0 +1,60 @@
+package tictactoe.engine;
+
+import java.util.Arrays;
+
+// Search cache for the 3x3 alpha-beta search. Positions are keyed by the
+// D4-canonical base-3 index of (side to move, opponent), so the index is a
+// perfect hash and entries never collide. Scores are stored relative to the
+// node, which makes an entry valid for every game and root that reaches it;
+// one table can therefore be shared across games and threads. Each entry is a
+// single short, so concurrent readers never see a torn entry.
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int BOUND_MASK = 0x3;
+    private static final int SCORE_SHIFT = 2;
+    private static final int SCORE_OFFSET = 32;
+
+    private static final TranspositionTable SHARED = new TranspositionTable();
+
+    private final short[] entries = new short[PerfectPlayTable.POSITIONS];
+
+    public static TranspositionTable shared() {
+        return SHARED;
+    }
+
+    public static int key(int sideToMoveMask, int opponentMask) {
+        return Symmetry.canonicalIndex(sideToMoveMask, opponentMask);
+    }
+
+    // Packed entry, or 0 if the position has not been stored
+    public int probe(int key) {
+        return entries[key];
+    }
+
+    public void store(int key, int score, int bound) {
+        entries[key] = (short) (bound | ((score + SCORE_OFFSET) << SCORE_SHIFT));
+    }
+
+    public static int bound(int entry) {
+        return entry & BOUND_MASK;
+    }
+
+    public static int score(int entry) {
+        return (entry >> SCORE_SHIFT) - SCORE_OFFSET;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, (short) 0);
+    }
+
+    public int size() {
+        int count = 0;
+        for (short entry : entries) {
+            if (entry != 0) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,228 @@
+package tictactoe.engine;
+
+// Ultimate tic-tac-toe: nine 3x3 boards laid out as a 3x3 grid. The 81-cell
+// position is a bitboard split into one 9-bit word per small board and
+// player, so every small-board test is GameEngine's 3x3 line logic on one int,
+// answered from a 512-entry table. The big board is the same test again, over
+// the masks of boards each player has won. Cell b * 9 + s is square s of board
+// b, both numbered row-major like a 3x3 game. A move in square s sends the
+// opponent to board s, or anywhere if board s is already decided.
+public final class UltimateBoard {
+    public static final int BOARDS = 9;
+    public static final int CELLS = BOARDS * GameEngine.CELLS;
+    public static final int ANY_BOARD = -1;
+
+    // Whether a 9-bit mask holds a line, indexed by the mask
+    private static final boolean[] LINES = new boolean[GameEngine.FULL + 1];
+
+    static {
+        for (int mask = 0; mask <= GameEngine.FULL; mask++) LINES[mask] = GameEngine.hasLine(mask);
+    }
+
+    private final int[] xMasks = new int[BOARDS];
+    private final int[] oMasks = new int[BOARDS];
+    private final int[] moves = new int[CELLS];
+    private final int[] previousNext = new int[CELLS]; // nextBoard before each move, for undo
+    private int xWon; // boards won by X, one bit per board
+    private int oWon;
+    private int drawn; // boards filled without a winner
+    private int nextBoard = ANY_BOARD;
+    private int moveCount;
+    private int winner;
+
+    public UltimateBoard copy() {
+        UltimateBoard copy = new UltimateBoard();
+        System.arraycopy(xMasks, 0, copy.xMasks, 0, BOARDS);
+        System.arraycopy(oMasks, 0, copy.oMasks, 0, BOARDS);
+        System.arraycopy(moves, 0, copy.moves, 0, moveCount);
+        System.arraycopy(previousNext, 0, copy.previousNext, 0, moveCount);
+        copy.xWon = xWon;
+        copy.oWon = oWon;
+        copy.drawn = drawn;
+        copy.nextBoard = nextBoard;
+        copy.moveCount = moveCount;
+        copy.winner = winner;
+        return copy;
+    }
+
+    public void reset() {
+        for (int b = 0; b < BOARDS; b++) {
+            xMasks[b] = 0;
+            oMasks[b] = 0;
+        }
+        xWon = 0;
+        oWon = 0;
+        drawn = 0;
+        nextBoard = ANY_BOARD;
+        moveCount = 0;
+        winner = GameEngine.NONE;
+    }
+
+    public static int cell(int board, int square) {
+        return board * GameEngine.CELLS + square;
+    }
+
+    public static int boardOf(int cell) {
+        return cell / GameEngine.CELLS;
+    }
+
+    public static int squareOf(int cell) {
+        return cell % GameEngine.CELLS;
+    }
+
+    // Row and column on the 9 x 9 grid as drawn
+    public static int row(int cell) {
+        return boardOf(cell) / 3 * 3 + squareOf(cell) / 3;
+    }
+
+    public static int col(int cell) {
+        return boardOf(cell) % 3 * 3 + squareOf(cell) % 3;
+    }
+
+    public static int cellAt(int row, int col) {
+        return cell(row / 3 * 3 + col / 3, row % 3 * 3 + col % 3);
+    }
+
+    // The small-board win table, shared with searches that play on raw masks
+    public static boolean isLine(int mask) {
+        return LINES[mask];
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getMove(int ply) {
+        return moves[ply];
+    }
+
+    public int lastMove() {
+        return moveCount == 0 ? -1 : moves[moveCount - 1];
+    }
+
+    public int currentPlayer() {
+        return (moveCount & 1) == 0 ? GameEngine.X : GameEngine.O;
+    }
+
+    // The board the side to move must play in, or ANY_BOARD
+    public int getNextBoard() {
+        return nextBoard;
+    }
+
+    public boolean isGameOver() {
+        return winner != GameEngine.NONE;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public int mask(int player, int board) {
+        return player == GameEngine.X ? xMasks[board] : oMasks[board];
+    }
+
+    // Boards won by the player, one bit per board
+    public int wonBoards(int player) {
+        return player == GameEngine.X ? xWon : oWon;
+    }
+
+    // Boards that take no more moves: won by either side or full
+    public int decidedBoards() {
+        return xWon | oWon | drawn;
+    }
+
+    // X, O, TIE for a full board nobody won, or NONE while it is still open
+    public int boardWinner(int board) {
+        int bit = 1 << board;
+        if ((xWon & bit) != 0) return GameEngine.X;
+        if ((oWon & bit) != 0) return GameEngine.O;
+        if ((drawn & bit) != 0) return GameEngine.TIE;
+        return GameEngine.NONE;
+    }
+
+    public int owner(int cell) {
+        int board = boardOf(cell);
+        int bit = 1 << squareOf(cell);
+        if ((xMasks[board] & bit) != 0) return GameEngine.X;
+        if ((oMasks[board] & bit) != 0) return GameEngine.O;
+        return GameEngine.NONE;
+    }
+
+    public boolean isEmpty(int cell) {
+        int board = boardOf(cell);
+        return ((xMasks[board] | oMasks[board]) & (1 << squareOf(cell))) == 0;
+    }
+
+    // Whether the board may be played in by the side to move
+    public boolean isPlayable(int board) {
+        return winner == GameEngine.NONE && (decidedBoards() & (1 << board)) == 0
+                && (nextBoard == ANY_BOARD || nextBoard == board);
+    }
+
+    public boolean isLegal(int cell) {
+        return cell >= 0 && cell < CELLS && isPlayable(boardOf(cell)) && isEmpty(cell);
+    }
+
+    // Writes the legal cells in ascending order and returns how many there are
+    public int legalMoves(int[] out) {
+        if (winner != GameEngine.NONE) return 0;
+        int count = 0;
+        int open = ~decidedBoards() & GameEngine.FULL;
+        if (nextBoard != ANY_BOARD) open &= 1 << nextBoard;
+        for (; open != 0; open &= open - 1) {
+            int board = Integer.numberOfTrailingZeros(open);
+            int empty = ~(xMasks[board] | oMasks[board]) & GameEngine.FULL;
+            for (; empty != 0; empty &= empty - 1) {
+                out[count++] = cell(board, Integer.numberOfTrailingZeros(empty));
+            }
+        }
+        return count;
+    }
+
+    // The cell must be legal; see isLegal
+    public void play(int cell) {
+        int player = currentPlayer();
+        int board = boardOf(cell);
+        int square = squareOf(cell);
+        int bit = 1 << board;
+        previousNext[moveCount] = nextBoard;
+        moves[moveCount++] = cell;
+        int mask = player == GameEngine.X ? (xMasks[board] |= 1 << square) : (oMasks[board] |= 1 << square);
+        if (LINES[mask]) {
+            int won = player == GameEngine.X ? (xWon |= bit) : (oWon |= bit);
+            if (LINES[won]) winner = player;
+        } else if ((xMasks[board] | oMasks[board]) == GameEngine.FULL) {
+            drawn |= bit;
+        }
+        if (winner == GameEngine.NONE && decidedBoards() == GameEngine.FULL) winner = GameEngine.TIE;
+        nextBoard = (decidedBoards() & (1 << square)) != 0 ? ANY_BOARD : square;
+    }
+
+    // Moves only go into open boards, so undoing one reopens its board
+    public void undo() {
+        int cell = moves[--moveCount];
+        int board = boardOf(cell);
+        int clear = ~(1 << squareOf(cell));
+        xMasks[board] &= clear;
+        oMasks[board] &= clear;
+        xWon &= ~(1 << board);
+        oWon &= ~(1 << board);
+        drawn &= ~(1 << board);
+        nextBoard = previousNext[moveCount];
+        winner = GameEngine.NONE;
+    }
+
+    // The boards of the completed big-board line, or an empty array if nobody has won
+    public int[] winningBoards() {
+        int won = winner == GameEngine.X ? xWon : winner == GameEngine.O ? oWon : 0;
+        for (int line : GameEngine.WIN_LINES) {
+            if ((won & line) == line) {
+                int[] boards = new int[3];
+                int i = 0;
+                for (int bits = line; bits != 0; bits &= bits - 1) boards[i++] = Integer.numberOfTrailingZeros(bits);
+                return boards;
+            }
+        }
+        return new int[0];
+    }
+}
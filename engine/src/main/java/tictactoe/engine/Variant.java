@@ -0,0 +1,55 @@
+package tictactoe.engine;
+
+// Board size and the number in a row needed to win
+public final class Variant {
+    public static final Variant CLASSIC = new Variant("3x3", 3, 3);
+    public static final Variant FOUR = new Variant("4x4", 4, 4);
+    public static final Variant FIVE_K4 = new Variant("5x5 (4 in a row)", 5, 4);
+    public static final Variant GOMOKU = new Variant("Gomoku 15x15", 15, 5);
+
+    public static final Variant[] PRESETS = {CLASSIC, FOUR, FIVE_K4, GOMOKU};
+
+    private final String name;
+    private final int size;
+    private final int winLength;
+
+    public Variant(String name, int size, int winLength) {
+        if (size < 3 || size > 19) throw new IllegalArgumentException("Board size must be between 3 and 19");
+        if (winLength < 3 || winLength > size) throw new IllegalArgumentException("Win length must be between 3 and " + size);
+        this.name = name;
+        this.size = size;
+        this.winLength = winLength;
+    }
+
+    public static Variant of(int size, int winLength) {
+        for (Variant preset : PRESETS) {
+            if (preset.size == size && preset.winLength == winLength) return preset;
+        }
+        return new Variant(size + "x" + size + " (" + winLength + " in a row)", size, winLength);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getCells() {
+        return size * size;
+    }
+
+    public boolean isClassic() {
+        return size == 3 && winLength == 3;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
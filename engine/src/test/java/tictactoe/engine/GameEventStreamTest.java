@@ -0,0 +1,154 @@
+package tictactoe.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+// Several publishers wrapping a small ring many times over: every observer must
+// see each publisher's events in the order it published them, a lossless one
+// must see all of them, and a stuck lossless one must not hold publishers for
+// longer than the stream's bound.
+class GameEventStreamTest {
+    private static final int CAPACITY = 8;
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS = 50_000; // per publisher
+
+    // Records, per publisher (the event's game), the next ply it expects
+    private static final class OrderCheck implements GameEventStream.Observer {
+        final int[] next = new int[PUBLISHERS];
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong missed = new AtomicLong();
+        volatile String failure;
+
+        @Override
+        public void onEvents(List<GameEvent> batch) {
+            for (GameEvent event : batch) {
+                GameEvent.MoveMade move = (GameEvent.MoveMade) event;
+                int publisher = (int) move.game();
+                if (move.ply() < next[publisher] && failure == null) {
+                    failure = "publisher " + publisher + " ply " + move.ply() + " after " + (next[publisher] - 1);
+                }
+                next[publisher] = move.ply() + 1;
+            }
+            received.addAndGet(batch.size());
+        }
+
+        @Override
+        public void onMissed(long count) {
+            missed.addAndGet(count);
+        }
+
+        boolean await(long total) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received.get() + missed.get() < total) {
+                if (System.nanoTime() > deadline) return false;
+                Thread.sleep(1);
+            }
+            return true;
+        }
+    }
+
+    private static void publishFromEveryThread(GameEventStream stream) throws InterruptedException {
+        Thread[] publishers = new Thread[PUBLISHERS];
+        for (int p = 0; p < PUBLISHERS; p++) {
+            int publisher = p;
+            publishers[p] = new Thread(() -> {
+                for (int ply = 0; ply < EVENTS; ply++) {
+                    stream.publish(new GameEvent.MoveMade(publisher, 3, ply, GameEngine.X, ply % GameEngine.CELLS));
+                }
+            });
+        }
+        for (Thread publisher : publishers) publisher.start();
+        for (Thread publisher : publishers) publisher.join();
+    }
+
+    @Test
+    void losslessObserverSeesEveryEventInOrder() throws InterruptedException {
+        try (GameEventStream stream = new GameEventStream(CAPACITY, 4, 1)) {
+            OrderCheck check = new OrderCheck();
+            GameEventStream.Subscription subscription = stream.subscribe(check, true);
+            publishFromEveryThread(stream);
+
+            long total = (long) PUBLISHERS * EVENTS;
+            assertTrue(check.await(total), "delivered " + check.received + " of " + total);
+            assertNull(check.failure, check.failure);
+            assertEquals(total, check.received.get());
+            assertEquals(0, subscription.getMissed());
+            assertTrue(subscription.isLossless());
+            for (int p = 0; p < PUBLISHERS; p++) assertEquals(EVENTS, check.next[p], "publisher " + p);
+        }
+    }
+
+    @Test
+    void lossyObserverSeesEventsInOrderAndCountsTheRest() throws InterruptedException {
+        try (GameEventStream stream = new GameEventStream(CAPACITY, 4, 2)) {
+            OrderCheck[] checks = {new OrderCheck(), new OrderCheck()};
+            for (OrderCheck check : checks) stream.subscribe(check, false);
+            publishFromEveryThread(stream);
+
+            long total = (long) PUBLISHERS * EVENTS;
+            for (OrderCheck check : checks) {
+                assertTrue(check.await(total), "delivered " + check.received + " and missed " + check.missed);
+                assertNull(check.failure, check.failure);
+                assertEquals(total, check.received.get() + check.missed.get());
+            }
+        }
+    }
+
+    @Test
+    void publisherALapAheadWaitsForTheOneBehind() throws InterruptedException {
+        // Batches of one, so a lossy observer that falls behind skips only to the oldest
+        // event still in the ring and always gets the last one
+        try (GameEventStream stream = new GameEventStream(2, 1, 1)) {
+            OrderCheck check = new OrderCheck();
+            stream.subscribe(check, false);
+            // Claimed, but not yet written, by a publisher that gets delayed
+            long delayed = stream.claim();
+            Thread ahead = new Thread(() -> {
+                stream.publish(new GameEvent.MoveMade(0, 3, 1, GameEngine.X, 1));
+                stream.publish(new GameEvent.MoveMade(0, 3, 2, GameEngine.X, 2)); // same slot as the delayed one
+            });
+            ahead.start();
+            ahead.join(200);
+            assertTrue(ahead.isAlive(), "overwrote a slot still being published");
+
+            stream.write(delayed, new GameEvent.MoveMade(0, 3, 0, GameEngine.X, 0));
+            ahead.join();
+            assertTrue(check.await(3), "delivered " + check.received + " of 3");
+            assertNull(check.failure, check.failure);
+            assertEquals(3, check.next[0], "the last event was lost");
+        }
+    }
+
+    @Test
+    void stuckLosslessObserverIsDemoted() throws InterruptedException {
+        try (GameEventStream stream = new GameEventStream(CAPACITY, 4, 1)) {
+            CountDownLatch release = new CountDownLatch(1);
+            GameEventStream.Subscription stuck = stream.subscribe(batch -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, true);
+
+            long start = System.nanoTime();
+            for (int ply = 0; ply < 4 * CAPACITY; ply++) {
+                stream.publish(new GameEvent.MoveMade(0, 3, ply, GameEngine.X, 0));
+            }
+            long waited = System.nanoTime() - start;
+            release.countDown();
+
+            assertFalse(stuck.isLossless());
+            assertTrue(waited < 2 * GameEventStream.LOSSLESS_WAIT_NANOS + TimeUnit.SECONDS.toNanos(1),
+                    "publishers waited " + waited / 1_000_000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+// Line-protocol game server, client and load simulator.
+module tictactoe.server {
+    requires transitive tictactoe.ai;
+
+    exports tictactoe.server;
+}
@@ -0,0 +1,121 @@
+package tictactoe.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import tictactoe.ai.Difficulty;
+import tictactoe.engine.GameEngine;
+
+// Client side of the GameServer protocol. Server messages are read on a
+// daemon thread and handed to the listener on that thread; Swing callers
+// must move them onto the EDT themselves.
+public final class GameClient implements Closeable {
+    public interface Listener {
+        void onWaiting();
+
+        void onStart(int side, int matchId);
+
+        void onMoved(int player, int cell);
+
+        // X, O, TIE or ABANDONED
+        void onOver(String result);
+
+        void onError(String message);
+
+        void onDisconnected();
+    }
+
+    private final Socket socket;
+    private final BufferedWriter writer;
+    private final Listener listener;
+
+    public GameClient(String host, int port, Listener listener) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        this.listener = listener;
+        Thread reader = new Thread(this::readLoop, "game-client-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public void playOnline() {
+        send("PLAY PVP");
+    }
+
+    public void playServerAi() {
+        send("PLAY AI");
+    }
+
+    public void playServerAi(Difficulty difficulty) {
+        send("PLAY AI " + difficulty.getName().toUpperCase());
+    }
+
+    public void move(int cell) {
+        send("MOVE " + cell);
+    }
+
+    private synchronized void send(String message) {
+        try {
+            writer.write(message);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            listener.onError("Connection lost: " + e.getMessage());
+        }
+    }
+
+    private void readLoop() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                dispatch(line.split(" "));
+            }
+        } catch (IOException e) {
+            // Closed locally or by the server
+        }
+        listener.onDisconnected();
+    }
+
+    private void dispatch(String[] parts) {
+        switch (parts[0]) {
+            case "WAITING":
+                listener.onWaiting();
+                break;
+            case "START":
+                listener.onStart(side(parts[1]), Integer.parseInt(parts[2]));
+                break;
+            case "MOVED":
+                listener.onMoved(side(parts[1]), Integer.parseInt(parts[2]));
+                break;
+            case "OVER":
+                listener.onOver(parts[1]);
+                break;
+            case "ERR":
+                listener.onError(String.join(" ", parts).substring(4));
+                break;
+            default:
+                listener.onError("Unexpected message: " + String.join(" ", parts));
+        }
+    }
+
+    private static int side(String token) {
+        return token.equals("X") ? GameEngine.X : GameEngine.O;
+    }
+
+    @Override
+    public void close() {
+        try {
+            send("QUIT");
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
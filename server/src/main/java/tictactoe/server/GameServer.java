@@ -0,0 +1,273 @@
+package tictactoe.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import tictactoe.ai.Difficulty;
+import tictactoe.engine.GameEvent;
+import tictactoe.engine.GameEventStream;
+
+// Headless match server speaking a line-based text protocol over TCP.
+//
+//   client -> server   PLAY AI [EASY|MEDIUM|HARD] | PLAY PVP | MOVE <cell 0-8> | WATCH [match] | QUIT
+//   server -> client   START <X|O> <match> | MOVED <X|O> <cell> | OVER <X|O|TIE|ABANDONED>
+//                      | WAITING | ERR <reason>
+//   to spectators      WATCHING <match|ALL> | MOVED <match> <X|O> <cell>
+//                      | OVER <match> <X|O|TIE|ABANDONED> | MISSED <count>
+//
+// Each connection gets its own thread: a virtual thread when the runtime has
+// them (JDK 21+), otherwise a pooled platform thread. Spectators are fed from
+// the event stream: the stream's dispatcher only offers their lines to the
+// spectator's bounded queue, and a sender thread of the connection's own writes
+// out whatever has queued up, one write at a time. A spectator that cannot keep
+// up is sent MISSED instead of slowing the matches or the other spectators down.
+public final class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7878;
+    private static final int SPECTATOR_QUEUE = 1 << 12; // lines
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = perConnectionExecutor();
+    private final AtomicReference<Connection> waiting = new AtomicReference<>();
+    private final AtomicInteger nextMatchId = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final GameEventStream events = new GameEventStream(1 << 16, 256, 2);
+
+    public GameServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 1024);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getMatchesStarted() {
+        return nextMatchId.get();
+    }
+
+    public GameEventStream getEvents() {
+        return events;
+    }
+
+    // Accepts connections on a background thread and returns immediately
+    public GameServer start() {
+        Thread acceptor = new Thread(this::serve, "game-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    // Accepts connections until the server is closed
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(new Connection(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+        events.close();
+    }
+
+    static ExecutorService perConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "game-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    final class Connection implements Runnable {
+        private final Socket socket;
+        private BufferedWriter writer;
+        private volatile ServerMatch match;
+        private GameEventStream.Subscription watching;
+        private final BlockingQueue<String> spectatorLines = new ArrayBlockingQueue<>(SPECTATOR_QUEUE);
+        private Future<?> sender; // started by the first WATCH
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            openConnections.incrementAndGet();
+            try (Socket s = socket;
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+                writer = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!handle(line.trim())) break;
+                }
+            } catch (SocketException e) {
+                // Client went away
+            } catch (IOException e) {
+                System.err.println("Connection failed: " + e.getMessage());
+            } finally {
+                waiting.compareAndSet(this, null);
+                if (match != null) match.leave(this);
+                if (watching != null) watching.cancel();
+                if (sender != null) sender.cancel(true);
+                openConnections.decrementAndGet();
+            }
+        }
+
+        private boolean handle(String line) {
+            if (line.equals("QUIT")) return false;
+            if (line.equals("PLAY AI") || line.startsWith("PLAY AI ")) {
+                Difficulty difficulty;
+                try {
+                    difficulty = line.length() > 7 ? Difficulty.named(line.substring(8).trim()) : Difficulty.HARD;
+                } catch (IllegalArgumentException e) {
+                    send("ERR unknown difficulty");
+                    return true;
+                }
+                leaveMatch();
+                match = new ServerMatch(nextMatchId.incrementAndGet(), events, this, null, difficulty);
+                match.start();
+            } else if (line.equals("PLAY PVP")) {
+                leaveMatch();
+                pair();
+            } else if (line.startsWith("MOVE ")) {
+                if (match == null) {
+                    send("ERR no match");
+                } else {
+                    try {
+                        match.move(this, Integer.parseInt(line.substring(5).trim()));
+                    } catch (NumberFormatException e) {
+                        send("ERR illegal move");
+                    }
+                }
+            } else if (line.equals("WATCH") || line.startsWith("WATCH ")) {
+                try {
+                    watch(line.length() > 5 ? Long.parseLong(line.substring(6).trim()) : -1);
+                } catch (NumberFormatException e) {
+                    send("ERR unknown match");
+                }
+            } else if (!line.isEmpty()) {
+                send("ERR unknown command");
+            }
+            return true;
+        }
+
+        private void pair() {
+            Connection opponent = waiting.getAndSet(null);
+            if (opponent == null || opponent == this) {
+                if (!waiting.compareAndSet(null, this)) {
+                    // Someone queued at the same moment; try again with them
+                    pair();
+                    return;
+                }
+                send("WAITING");
+                return;
+            }
+            ServerMatch created = new ServerMatch(nextMatchId.incrementAndGet(), events, opponent, this);
+            opponent.match = created;
+            match = created;
+            created.start();
+        }
+
+        // Streams moves and results of one match, or of every match when match is -1
+        private void watch(long match) {
+            if (watching != null) watching.cancel();
+            spectatorLines.clear();
+            send("WATCHING " + (match < 0 ? "ALL" : match));
+            if (sender == null) sender = connections.submit(this::sendSpectatorLines);
+            watching = events.subscribe(new GameEventStream.Observer() {
+                private long missed; // dropped here or by the stream, not yet reported
+
+                // Runs on a dispatcher thread, so it only ever offers to the queue
+                @Override
+                public void onEvents(List<GameEvent> batch) {
+                    for (GameEvent event : batch) {
+                        if (match >= 0 && event.game() != match) continue;
+                        if (missed > 0 && spectatorLines.offer("MISSED " + missed)) missed = 0;
+                        if (missed > 0 || !spectatorLines.offer(event.toString())) missed++;
+                    }
+                }
+
+                @Override
+                public void onMissed(long count) {
+                    missed += count;
+                }
+            }, false);
+        }
+
+        // The spectator's writer: sends what has queued up until the connection ends
+        private void sendSpectatorLines() {
+            List<String> lines = new ArrayList<>();
+            try {
+                while (true) {
+                    lines.add(spectatorLines.take());
+                    spectatorLines.drainTo(lines);
+                    send(String.join("\n", lines));
+                    lines.clear();
+                }
+            } catch (InterruptedException e) {
+                // Connection closed
+            }
+        }
+
+        private void leaveMatch() {
+            if (match != null) {
+                match.leave(this);
+                match = null;
+            }
+            waiting.compareAndSet(this, null);
+        }
+
+        // Called from either player's thread, so writes are serialized
+        synchronized void send(String message) {
+            if (writer == null) return;
+            try {
+                writer.write(message);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                // The reading side notices the broken connection and cleans up
+            }
+        }
+    }
+
+    //   java tictactoe.server.GameServer [port]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (GameServer server = new GameServer(port)) {
+            System.out.println("Tic-Tac-Toe server listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
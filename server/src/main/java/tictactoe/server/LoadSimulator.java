@@ -0,0 +1,196 @@
+package tictactoe.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tictactoe.engine.GameEngine;
+
+// Load test for GameServer: many concurrent clients each play a series of
+// random games against the server AI, timing every move from sending MOVE to
+// receiving the AI's reply (or the end of the game). Without a host it starts
+// a server in the same JVM on a free port. Spectators WATCH every match for
+// the whole run, to compare move latency with and without them.
+//
+//   java tictactoe.server.LoadSimulator [--host h] [--port p] [--clients 1000] [--games 10] [--spectators 0]
+public final class LoadSimulator {
+    public static void main(String[] args) throws Exception {
+        String host = null;
+        int port = GameServer.DEFAULT_PORT;
+        int clients = 1000;
+        int games = 10;
+        int spectators = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host": host = args[i + 1]; break;
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                case "--clients": clients = Integer.parseInt(args[i + 1]); break;
+                case "--games": games = Integer.parseInt(args[i + 1]); break;
+                case "--spectators": spectators = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        GameServer embedded = null;
+        if (host == null) {
+            embedded = new GameServer(0).start();
+            host = "localhost";
+            port = embedded.getPort();
+        }
+
+        ExecutorService executor = GameServer.perConnectionExecutor();
+        List<Socket> watchers = new ArrayList<>();
+        AtomicLong watched = new AtomicLong();
+        AtomicLong missed = new AtomicLong();
+        for (int s = 0; s < spectators; s++) {
+            watchers.add(watch(host, port, executor, watched, missed));
+        }
+
+        // At most 5 moves per game by the client
+        long[][] latencies = new long[clients][games * 5];
+        int[] counts = new int[clients];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            String targetHost = host;
+            int targetPort = port;
+            int gamesPerClient = games;
+            executor.execute(() -> {
+                try {
+                    counts[client] = runClient(targetHost, targetPort, gamesPerClient, latencies[client], client);
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        // Spectators trail the players; give them until the stream goes quiet
+        for (long seen = -1; spectators > 0 && watched.get() != seen; ) {
+            seen = watched.get();
+            Thread.sleep(200);
+        }
+        for (Socket watcher : watchers) watcher.close();
+        executor.shutdown();
+        if (embedded != null) embedded.close();
+
+        int total = 0;
+        for (int count : counts) total += count;
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        System.out.printf("clients=%d games=%d moves=%d failures=%d elapsed=%.1fs moves/s=%.0f%n",
+                clients, clients * games, total, failures.get(), elapsed / 1e9, total / (elapsed / 1e9));
+        if (total > 0) {
+            System.out.printf("round trip p50=%.3fms p99=%.3fms max=%.3fms%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[total - 1] / 1e6);
+        }
+        if (spectators > 0) {
+            System.out.printf("spectators=%d events received=%d missed=%d%n", spectators, watched.get(), missed.get());
+        }
+    }
+
+    // Connects a spectator that counts the events it is sent until its socket is closed
+    private static Socket watch(String host, int port, ExecutorService executor, AtomicLong watched, AtomicLong missed)
+            throws IOException {
+        Socket socket = new Socket(host, port);
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        send(out, "WATCH");
+        expect(in, "WATCHING");
+        executor.execute(() -> {
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith("MISSED ")) missed.addAndGet(Long.parseLong(line.substring(7)));
+                    else watched.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // Closed at the end of the run
+            }
+        });
+        return socket;
+    }
+
+    // Plays the games and returns the number of timed moves
+    private static int runClient(String host, int port, int games, long[] latencies, int seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int timed = 0;
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            for (int g = 0; g < games; g++) {
+                send(out, "PLAY AI");
+                expect(in, "START");
+                int xMask = 0;
+                int oMask = 0;
+                while (true) {
+                    int empty = ~(xMask | oMask) & GameEngine.FULL;
+                    for (int skip = random.nextInt(Integer.bitCount(empty)); skip > 0; skip--) {
+                        empty &= empty - 1;
+                    }
+                    long sent = System.nanoTime();
+                    send(out, "MOVE " + Integer.numberOfTrailingZeros(empty));
+                    // Our move is echoed first, then comes the AI reply, then OVER if that ended it
+                    xMask |= 1 << movedCell(expect(in, "MOVED X"));
+                    if (GameEngine.winner(xMask, oMask) != GameEngine.NONE) {
+                        expect(in, "OVER");
+                        latencies[timed++] = System.nanoTime() - sent;
+                        break;
+                    }
+                    oMask |= 1 << movedCell(expect(in, "MOVED O"));
+                    latencies[timed++] = System.nanoTime() - sent;
+                    if (GameEngine.winner(xMask, oMask) != GameEngine.NONE) {
+                        expect(in, "OVER");
+                        break;
+                    }
+                }
+            }
+            send(out, "QUIT");
+        }
+        return timed;
+    }
+
+    private static void send(BufferedWriter out, String message) throws IOException {
+        out.write(message);
+        out.write('\n');
+        out.flush();
+    }
+
+    private static String expect(BufferedReader in, String prefix) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw new IOException("Server closed the connection");
+        if (!line.startsWith(prefix)) throw new IOException("Expected " + prefix + " but got " + line);
+        return line;
+    }
+
+    private static int movedCell(String line) {
+        return Integer.parseInt(line.substring("MOVED X ".length()));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
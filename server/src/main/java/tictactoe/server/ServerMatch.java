@@ -0,0 +1,102 @@
+package tictactoe.server;
+
+import java.util.SplittableRandom;
+
+import tictactoe.ai.Difficulty;
+import tictactoe.ai.MoveStrategy;
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GameEvent;
+import tictactoe.engine.GameEventStream;
+
+// One 3x3 match hosted by the GameServer. The whole position is two int masks,
+// so thousands of matches cost next to nothing; all access is synchronized on
+// the match because both players' connection threads touch it. Moves and
+// results are also published to the server's event stream for spectators.
+final class ServerMatch {
+    private final int id;
+    private final GameEventStream events;
+    private final GameServer.Connection x;
+    private final GameServer.Connection o; // null when playing the server AI
+    private final MoveStrategy ai;
+    private final SplittableRandom random;
+    private int xMask;
+    private int oMask;
+    private boolean over;
+
+    ServerMatch(int id, GameEventStream events, GameServer.Connection x, GameServer.Connection o) {
+        this(id, events, x, o, Difficulty.HARD);
+    }
+
+    // Easy and Medium cost at most 2,000 and 50,000 nodes a move, so many of them fit on one server
+    ServerMatch(int id, GameEventStream events, GameServer.Connection x, GameServer.Connection o,
+            Difficulty difficulty) {
+        this.id = id;
+        this.events = events;
+        this.x = x;
+        this.o = o;
+        this.ai = MoveStrategy.difficulty(difficulty);
+        this.random = new SplittableRandom(id);
+    }
+
+    int getId() {
+        return id;
+    }
+
+    synchronized void start() {
+        x.send("START X " + id);
+        if (o != null) o.send("START O " + id);
+    }
+
+    synchronized void move(GameServer.Connection from, int cell) {
+        if (over) {
+            from.send("ERR game over");
+            return;
+        }
+        int player = Integer.bitCount(xMask) == Integer.bitCount(oMask) ? GameEngine.X : GameEngine.O;
+        GameServer.Connection expected = player == GameEngine.X ? x : o;
+        if (from != expected) {
+            from.send("ERR not your turn");
+            return;
+        }
+        if (cell < 0 || cell >= GameEngine.CELLS || ((xMask | oMask) & (1 << cell)) != 0) {
+            from.send("ERR illegal move");
+            return;
+        }
+        apply(player, cell);
+        if (!over && o == null) {
+            apply(GameEngine.O, ai.move(xMask, oMask, random));
+        }
+    }
+
+    private void apply(int player, int cell) {
+        if (player == GameEngine.X) xMask |= 1 << cell;
+        else oMask |= 1 << cell;
+        broadcast("MOVED " + (player == GameEngine.X ? "X " : "O ") + cell);
+        events.publish(new GameEvent.MoveMade(id, 3, Integer.bitCount(xMask | oMask), player, cell));
+
+        int winner = GameEngine.winner(xMask, oMask);
+        if (winner != GameEngine.NONE) {
+            over = true;
+            broadcast("OVER " + (winner == GameEngine.X ? "X" : winner == GameEngine.O ? "O" : "TIE"));
+            events.publish(new GameEvent.GameOver(id, winner));
+        }
+    }
+
+    // The other player is told when someone leaves an unfinished match
+    synchronized void leave(GameServer.Connection who) {
+        if (over) return;
+        over = true;
+        GameServer.Connection other = who == x ? o : x;
+        if (other != null) other.send("OVER ABANDONED");
+        events.publish(new GameEvent.GameOver(id, GameEngine.NONE));
+    }
+
+    synchronized boolean isOver() {
+        return over;
+    }
+
+    private void broadcast(String message) {
+        x.send(message);
+        if (o != null) o.send(message);
+    }
+}
@@ -0,0 +1,8 @@
+// Swing front end and the launcher for every tool in the project.
+module tictactoe.ui {
+    requires java.desktop;
+    requires java.management;
+    requires tictactoe.server;
+
+    exports tictactoe.ui;
+}
@@ -0,0 +1,215 @@
+package tictactoe.ui;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import javax.swing.*;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GridBoard;
+
+// Paints the whole N x N board in one component, straight from the GridBoard.
+// Changes repaint only the affected cell rectangles, and paintComponent walks
+// just the cells inside the clip. X and O are rendered once per cell size into
+// images and then blitted, so a repaint allocates nothing.
+final class BoardView extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    static final Color BG_COLOR = new Color(45, 52, 54);
+    private static final Color TILE_COLOR = new Color(99, 110, 114);
+    private static final Color HOVER_COLOR = new Color(116, 125, 140);
+    private static final Color WIN_COLOR = new Color(46, 213, 115);
+    private static final Color TIE_COLOR = new Color(255, 159, 67);
+    private static final Color PLAYER_X_COLOR = new Color(52, 152, 219);
+    private static final Color PLAYER_O_COLOR = new Color(231, 76, 60);
+    private static final Font GLYPH_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final int MARGIN = 10;
+
+    // Per-cell background marks
+    private static final byte PLAIN = 0;
+    private static final byte WIN = 1;
+    private static final byte TIE = 2;
+
+    private final GridBoard engine;
+    private final int size;
+    private final int gap;
+    private final byte[] marks;
+    private boolean inputEnabled = true;
+    private int hoverCell = -1;
+
+    // Geometry and glyphs for the current component size
+    private int cellSize;
+    private int originX;
+    private int originY;
+    private int glyphSize = -1;
+    private BufferedImage xGlyph;
+    private BufferedImage oGlyph;
+
+    BoardView(GridBoard engine, IntConsumer onCellClicked) {
+        this.engine = engine;
+        this.size = engine.getSize();
+        this.gap = size <= 5 ? 10 : 2;
+        this.marks = new byte[engine.getCellCount()];
+        setOpaque(true);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverCell(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverCell(-1);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (inputEnabled && cell >= 0 && SwingUtilities.isLeftMouseButton(e)) {
+                    onCellClicked.accept(cell);
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    // Call after the engine plays or undoes a move on this cell
+    void cellChanged(int cell) {
+        repaintCell(cell);
+    }
+
+    void markWin(int[] cells) {
+        for (int cell : cells) {
+            marks[cell] = WIN;
+            repaintCell(cell);
+        }
+    }
+
+    void markTie() {
+        Arrays.fill(marks, TIE);
+        repaint();
+    }
+
+    // Clears marks after the engine has been reset
+    void reset() {
+        Arrays.fill(marks, PLAIN);
+        inputEnabled = true;
+        repaint();
+    }
+
+    // Unlike setEnabled this does not repaint the whole board
+    void setInputEnabled(boolean enabled) {
+        if (inputEnabled == enabled) return;
+        inputEnabled = enabled;
+        if (hoverCell >= 0) repaintCell(hoverCell);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int preferred = Math.max(300, size * 30);
+        return new Dimension(preferred, preferred);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        layoutCells();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(BG_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (cellSize <= 0) return;
+
+        int pitch = cellSize + gap;
+        int firstCol = Math.max(0, (clip.x - originX) / pitch);
+        int lastCol = Math.min(size - 1, (clip.x + clip.width - originX) / pitch);
+        int firstRow = Math.max(0, (clip.y - originY) / pitch);
+        int lastRow = Math.min(size - 1, (clip.y + clip.height - originY) / pitch);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                paintCell(g, r * size + c, originX + c * pitch, originY + r * pitch);
+            }
+        }
+    }
+
+    private void paintCell(Graphics g, int cell, int x, int y) {
+        int owner = engine.owner(cell);
+        Color background = TILE_COLOR;
+        if (marks[cell] == WIN) background = WIN_COLOR;
+        else if (marks[cell] == TIE) background = TIE_COLOR;
+        else if (cell == hoverCell && inputEnabled && owner == GameEngine.NONE) background = HOVER_COLOR;
+        g.setColor(background);
+        g.fillRect(x, y, cellSize, cellSize);
+
+        if (owner != GameEngine.NONE) {
+            g.drawImage(owner == GameEngine.X ? xGlyph : oGlyph, x, y, null);
+        }
+    }
+
+    // Recomputes the cell grid for the current size and re-renders the glyphs if it changed
+    private void layoutCells() {
+        int available = Math.min(getWidth(), getHeight()) - 2 * MARGIN;
+        cellSize = Math.max(0, (available - gap * (size - 1)) / size);
+        int boardSize = cellSize * size + gap * (size - 1);
+        originX = (getWidth() - boardSize) / 2;
+        originY = (getHeight() - boardSize) / 2;
+        if (cellSize > 0 && cellSize != glyphSize) {
+            xGlyph = renderGlyph("X", PLAYER_X_COLOR);
+            oGlyph = renderGlyph("O", PLAYER_O_COLOR);
+            glyphSize = cellSize;
+        }
+    }
+
+    private BufferedImage renderGlyph(String text, Color color) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(cellSize, cellSize, Transparency.TRANSLUCENT)
+                : new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(GLYPH_FONT.deriveFont(cellSize * 0.6f));
+            g.setColor(color);
+            FontMetrics metrics = g.getFontMetrics();
+            int x = (cellSize - metrics.stringWidth(text)) / 2;
+            int y = (cellSize - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(text, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // Cell under the point, or -1 for the margins and the gaps between cells
+    private int cellAt(int x, int y) {
+        if (cellSize <= 0) return -1;
+        int pitch = cellSize + gap;
+        int dx = x - originX;
+        int dy = y - originY;
+        if (dx < 0 || dy < 0) return -1;
+        int c = dx / pitch;
+        int r = dy / pitch;
+        if (c >= size || r >= size || dx % pitch >= cellSize || dy % pitch >= cellSize) return -1;
+        return r * size + c;
+    }
+
+    private void setHoverCell(int cell) {
+        if (cell == hoverCell) return;
+        int previous = hoverCell;
+        hoverCell = cell;
+        if (previous >= 0) repaintCell(previous);
+        if (cell >= 0) repaintCell(cell);
+    }
+
+    private void repaintCell(int cell) {
+        if (cellSize <= 0) {
+            repaint();
+            return;
+        }
+        int pitch = cellSize + gap;
+        repaint(originX + (cell % size) * pitch, originY + (cell / size) * pitch, cellSize, cellSize);
+    }
+}
@@ -0,0 +1,43 @@
+package tictactoe.ui;
+
+import java.util.Arrays;
+
+import tictactoe.ai.BookBuilder;
+import tictactoe.ai.MctsSearch;
+import tictactoe.ai.SelfPlay;
+import tictactoe.ai.UltimateSearch;
+import tictactoe.engine.GameLog;
+import tictactoe.engine.PositionAnalyzer;
+import tictactoe.server.GameServer;
+import tictactoe.server.LoadSimulator;
+
+// Single entry point for the packaged application. With no command it opens
+// the game window; the other commands hand the remaining arguments to the
+// matching tool's main.
+//   java -jar tictactoe-swing-ui.jar [play | server | selfplay | analyze | log | book | mcts | ultimate | load | startup] [args...]
+public final class Launcher {
+    private Launcher() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "play";
+        String[] rest = args.length > 0 ? Arrays.copyOfRange(args, 1, args.length) : args;
+        switch (command) {
+            case "play": TicTacToeEnhanced.main(rest); break;
+            case "server": GameServer.main(rest); break;
+            case "selfplay": SelfPlay.main(rest); break;
+            case "analyze": PositionAnalyzer.main(rest); break;
+            case "log": GameLog.main(rest); break;
+            case "book": BookBuilder.main(rest); break;
+            case "mcts": MctsSearch.main(rest); break;
+            case "ultimate": UltimateSearch.main(rest); break;
+            case "load": LoadSimulator.main(rest); break;
+            case "startup": StartupBenchmark.main(rest); break;
+            default:
+                System.err.println("Usage: java -jar tictactoe-swing-ui.jar"
+                        + " [play | server | selfplay | analyze | log | book | mcts | ultimate | load | startup]"
+                        + " [args...]");
+                System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package tictactoe.ui;
+
+import java.awt.GraphicsEnvironment;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import tictactoe.ai.AsyncAi;
+import tictactoe.ai.Warmup;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+
+// Startup timing for a fresh JVM, measured from process start: how long until
+// the main menu is on screen (or, without a display, fully built) and until the
+// AI has answered its first move. Run it once per JVM; --train only exercises
+// the same path so the build can record an AppCDS archive from it.
+//
+//   java [-XX:SharedArchiveFile=game/target/tictactoe.jsa] -cp game/target/classes
+//       tictactoe.ui.StartupBenchmark [--variant 3x3|4x4|...] [--train]
+public final class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        Variant variant = Variant.CLASSIC;
+        boolean train = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--variant": variant = variantNamed(args[++i]); break;
+                case "--train": train = true; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        Warmup.start();
+        boolean headless = GraphicsEnvironment.isHeadless();
+        JFrame[] menu = new JFrame[1];
+        SwingUtilities.invokeAndWait(() -> {
+            if (headless) TicTacToeEnhanced.createMenuPanel(null);
+            else menu[0] = TicTacToeEnhanced.showMainMenu();
+        });
+        // Wait for the frame's first paint to be dispatched
+        SwingUtilities.invokeAndWait(() -> { });
+        long firstFrame = System.currentTimeMillis() - jvmStart;
+
+        long firstMove;
+        try (AsyncAi ai = new AsyncAi(ForkJoinPool.commonPool(), 0, AsyncAi.DEFAULT_TIME_BUDGET_MS)) {
+            ai.requestMove(new GridBoard(variant)).get();
+            firstMove = System.currentTimeMillis() - jvmStart;
+        }
+        if (menu[0] != null) SwingUtilities.invokeAndWait(menu[0]::dispose);
+
+        if (!train) {
+            System.out.printf("variant=%s headless=%b time-to-first-frame=%dms time-to-first-ai-move=%dms%n",
+                    variant, headless, firstFrame, firstMove);
+        }
+        System.exit(0);
+    }
+
+    private static Variant variantNamed(String name) {
+        for (Variant preset : Variant.PRESETS) {
+            if (preset.getName().startsWith(name)) return preset;
+        }
+        throw new IllegalArgumentException("Unknown variant: " + name);
+    }
+}
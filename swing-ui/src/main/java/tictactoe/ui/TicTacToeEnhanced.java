@@ -0,0 +1,668 @@
+package tictactoe.ui;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.*;
+
+import tictactoe.ai.AsyncAi;
+import tictactoe.ai.Difficulty;
+import tictactoe.ai.SearchMetrics;
+import tictactoe.ai.Warmup;
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GameEvent;
+import tictactoe.engine.GameEventStream;
+import tictactoe.engine.GameLog;
+import tictactoe.engine.GridBoard;
+import tictactoe.engine.Variant;
+import tictactoe.server.GameClient;
+import tictactoe.server.GameServer;
+
+public class TicTacToeEnhanced {
+    private static final int BOARD_WIDTH = 600;
+    private static final int BOARD_HEIGHT = 700;
+    private static final Color BG_COLOR = BoardView.BG_COLOR;
+    private static final long AI_THINK_DELAY_MS = Long.getLong("ttt.thinkDelayMs", AsyncAi.DEFAULT_THINK_DELAY_MS);
+    private static final long AI_TIME_BUDGET_MS = Long.getLong("ttt.timeBudgetMs", AsyncAi.DEFAULT_TIME_BUDGET_MS);
+    // Shared rather than created per component, so building a window allocates no fonts
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final Font STATUS_FONT = new Font("Arial", Font.BOLD, 36);
+    private static final Font MENU_BUTTON_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 18);
+    private static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Font METRICS_FONT = new Font("Monospaced", Font.PLAIN, 11);
+    private static GameLog history; // opened on first use, shared by every window
+    private static boolean historyUnavailable;
+    // Every window publishes its games here; the history log is one lossless observer
+    private static GameEventStream events;
+    private static GameEventStream.Subscription recording;
+    private static final AtomicLong nextGameId = new AtomicLong();
+    
+    private JFrame frame;
+    private JLabel textLabel;
+    private JLabel scoreLabel;
+    private JLabel metricsLabel;
+    private BoardView boardView;
+    private JButton restartButton;
+    private final Variant variant;
+    private final GridBoard engine;
+    private final AsyncAi ai; // null unless playing the AI
+    private CompletableFuture<Integer> pendingAiMove;
+    private GameClient client;
+    private long gameId = newGameId();
+    
+    private final String playerX = "X";
+    private final String playerO = "O";
+    private String currentPlayer;
+    private String humanPlayer;
+    private String aiPlayer;
+    
+    private boolean gameOver = false;
+    private boolean vsAI = false;
+    private boolean aiMode = false; // true = strategic AI, false = player vs player
+    private boolean onlineMode = false; // opponent plays through a GameServer
+    private int xWins = 0;
+    private int oWins = 0;
+    private int ties = 0;
+
+    public TicTacToeEnhanced(boolean enableAI) {
+        this(enableAI, Variant.CLASSIC);
+    }
+
+    public TicTacToeEnhanced(boolean enableAI, Variant variant) {
+        this(enableAI, variant, AsyncAi.ALPHA_BETA);
+    }
+
+    // engine is AsyncAi.ALPHA_BETA or AsyncAi.MCTS
+    public TicTacToeEnhanced(boolean enableAI, Variant variant, int engine) {
+        this(enableAI, variant, engine, Difficulty.HARD);
+    }
+
+    public TicTacToeEnhanced(boolean enableAI, Variant variant, int engine, Difficulty difficulty) {
+        this.variant = variant;
+        this.engine = new GridBoard(variant);
+        // Only AI games pay for the worker thread and search tables
+        if (enableAI) {
+            this.ai = new AsyncAi(ForkJoinPool.commonPool(), AI_THINK_DELAY_MS, AI_TIME_BUDGET_MS, engine);
+            ai.setDifficulty(difficulty);
+        } else {
+            this.ai = null;
+        }
+        this.vsAI = enableAI;
+        this.aiMode = enableAI;
+        this.currentPlayer = playerX; // X always starts
+        
+        if (vsAI) {
+            // In AI mode, human hasn't chosen yet
+            this.humanPlayer = null;
+            this.aiPlayer = null;
+        }
+        
+        initializeUI();
+    }
+
+    // Joins the next free player on a GameServer; the server decides who is X
+    public TicTacToeEnhanced(String host, int port) throws IOException {
+        this(false, Variant.CLASSIC);
+        onlineMode = true;
+        try {
+            client = new GameClient(host, port, new OnlineListener());
+        } catch (IOException e) {
+            frame.dispose();
+            throw e;
+        }
+        disableBoard();
+        updateTurnLabel();
+        client.playOnline();
+    }
+
+    private void initializeUI() {
+        frame = new JFrame("Tic-Tac-Toe - " + variant.getName());
+        frame.setSize(BOARD_WIDTH, BOARD_HEIGHT);
+        frame.setLocationRelativeTo(null);
+        frame.setResizable(false);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+        frame.getContentPane().setBackground(BG_COLOR);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                abandonGame();
+                if (ai != null) ai.close();
+                if (client != null) client.close();
+            }
+        });
+
+        // Header panel with label and score
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(BG_COLOR);
+        
+        textLabel = new JLabel();
+        textLabel.setForeground(Color.WHITE);
+        textLabel.setFont(STATUS_FONT);
+        textLabel.setHorizontalAlignment(JLabel.CENTER);
+        updateTurnLabel();
+        
+        scoreLabel = new JLabel(getScoreText(), SwingConstants.CENTER);
+        scoreLabel.setForeground(Color.LIGHT_GRAY);
+        scoreLabel.setFont(LABEL_FONT);
+        
+        headerPanel.add(textLabel, BorderLayout.CENTER);
+        headerPanel.add(scoreLabel, BorderLayout.SOUTH);
+
+        // Debug overlay, only when started with -Dttt.metrics=true
+        if (SearchMetrics.ENABLED) {
+            metricsLabel = new JLabel(SearchMetrics.get().summary(), SwingConstants.CENTER);
+            metricsLabel.setForeground(Color.GRAY);
+            metricsLabel.setFont(METRICS_FONT);
+            headerPanel.add(metricsLabel, BorderLayout.NORTH);
+        }
+        frame.add(headerPanel, BorderLayout.NORTH);
+
+        // Board, painted as a single component
+        boardView = new BoardView(engine, this::handleTileClick);
+        frame.add(boardView, BorderLayout.CENTER);
+
+        // Control panel
+        JPanel controlPanel = new JPanel(new FlowLayout());
+        controlPanel.setBackground(BG_COLOR);
+        
+        restartButton = new JButton("New Game");
+        restartButton.setFont(BUTTON_FONT);
+        restartButton.setBackground(new Color(108, 92, 231));
+        restartButton.setForeground(Color.WHITE);
+        restartButton.setFocusable(false);
+        restartButton.setBorder(BorderFactory.createEmptyBorder(10, 30, 10, 30));
+        restartButton.addActionListener(e -> restartGame());
+        
+        JButton menuButton = new JButton("Main Menu");
+        menuButton.setFont(BUTTON_FONT);
+        menuButton.setBackground(new Color(200, 60, 60));
+        menuButton.setForeground(Color.WHITE);
+        menuButton.setFocusable(false);
+        menuButton.setBorder(BorderFactory.createEmptyBorder(10, 30, 10, 30));
+        menuButton.addActionListener(e -> returnToMenu());
+        
+        controlPanel.add(restartButton);
+        controlPanel.add(menuButton);
+        frame.add(controlPanel, BorderLayout.SOUTH);
+
+        frame.setVisible(true);
+    }
+
+    private void handleTileClick(int cell) {
+        if (gameOver || !engine.isEmpty(cell)) return;
+
+        // Online, the move only counts once the server echoes it back
+        if (onlineMode) {
+            if (humanPlayer != null && currentPlayer.equals(humanPlayer)) {
+                disableBoard();
+                client.move(cell);
+            }
+            return;
+        }
+        
+        // In AI mode, if this is the first move, set player symbols
+        if (aiMode && humanPlayer == null) {
+            humanPlayer = currentPlayer;
+            aiPlayer = humanPlayer.equals(playerX) ? playerO : playerX;
+            textLabel.setText("You are " + humanPlayer + " - Your Turn");
+        }
+        
+        // In AI mode, only allow human to click on their turn
+        if (aiMode && !currentPlayer.equals(humanPlayer)) return;
+        
+        makeMove(cell, currentPlayer);
+    }
+
+    private void makeMove(int cell, String player) {
+        engine.play(cell);
+        boardView.cellChanged(cell);
+        events().publish(new GameEvent.MoveMade(gameId, variant.getSize(), engine.getMoveCount(), engine.owner(cell),
+                cell));
+        
+        if (checkWinner()) {
+            return;
+        }
+        
+        currentPlayer = currentPlayer.equals(playerX) ? playerO : playerX;
+        updateTurnLabel();
+        
+        if (aiMode && currentPlayer.equals(aiPlayer)) {
+            textLabel.setText("AI thinking...");
+            disableBoard();
+            events().publish(new GameEvent.AiThinking(gameId, side(aiPlayer), true));
+            // Search runs on the AI worker; only the result comes back to the EDT
+            CompletableFuture<Integer> request = ai.requestMove(engine);
+            pendingAiMove = request;
+            request.thenAccept(move -> SwingUtilities.invokeLater(() -> {
+                // A restart or a newer request makes this result stale
+                if (pendingAiMove == request && !gameOver) {
+                    pendingAiMove = null;
+                    aiMove(move);
+                }
+            }));
+        }
+    }
+
+    private void aiMove(int bestMove) {
+        events().publish(new GameEvent.AiThinking(gameId, side(aiPlayer), false));
+        if (metricsLabel != null) {
+            metricsLabel.setText(SearchMetrics.get().summary());
+        }
+        if (bestMove >= 0) {
+            makeMove(bestMove, aiPlayer);
+            enableBoard();
+        }
+    }
+
+    private int side(String player) {
+        return player.equals(playerX) ? GameEngine.X : GameEngine.O;
+    }
+
+    private String getWinner() {
+        switch (engine.getWinner()) {
+            case GameEngine.X: return playerX;
+            case GameEngine.O: return playerO;
+            case GameEngine.TIE: return "Tie";
+            default: return null;
+        }
+    }
+
+    private boolean checkWinner() {
+        String result = getWinner();
+        if (result != null) {
+            gameOver = true;
+            boardView.setInputEnabled(false);
+            
+            if (result.equals("Tie")) {
+                ties++;
+                textLabel.setText("It's a Tie!");
+                highlightTie();
+            } else {
+                if (result.equals(playerX)) xWins++;
+                else oWins++;
+                
+                if (aiMode || onlineMode) {
+                    if (result.equals(humanPlayer)) {
+                        textLabel.setText("You Win! 🎉");
+                    } else {
+                        textLabel.setText(aiMode ? "AI Wins!" : "Opponent Wins!");
+                    }
+                } else {
+                    textLabel.setText(result + " Wins!");
+                }
+                highlightWinner(result);
+            }
+            
+            updateScoreLabel();
+            events().publish(new GameEvent.GameOver(gameId, engine.getWinner()));
+            events().publish(new GameEvent.ScoreUpdated(gameId, xWins, oWins, ties));
+            return true;
+        }
+        return false;
+    }
+
+    // A game left unfinished by a restart or closing the window
+    private void abandonGame() {
+        if (!gameOver && engine.getMoveCount() > 0) {
+            gameOver = true;
+            events().publish(new GameEvent.GameOver(gameId, GameEngine.NONE));
+        }
+    }
+
+    static long newGameId() {
+        return nextGameId.incrementAndGet();
+    }
+
+    // The stream is created with the history recorder already subscribed, which
+    // appends the finished 3x3 games off the EDT. It is lossless, so a publish on the
+    // EDT can wait for it, but only up to the stream's bound before it turns lossy
+    static synchronized GameEventStream events() {
+        if (events == null) {
+            events = new GameEventStream(1 << 12, 64, 1);
+            GameLog log = history();
+            if (log != null) recording = events.subscribe(log.recorder(), true);
+        }
+        return events;
+    }
+
+    private static synchronized GameLog history() {
+        if (history == null && !historyUnavailable) {
+            try {
+                history = GameLog.open(GameLog.defaultPath());
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    // Let the recorder catch up with games that just finished
+                    long deadline = System.nanoTime() + 1_000_000_000L;
+                    while (recording != null && recording.getLag() > 0 && System.nanoTime() < deadline) {
+                        LockSupport.parkNanos(1_000_000L);
+                    }
+                    try {
+                        history.close();
+                    } catch (IOException e) {
+                        // Nothing left to do at exit
+                    }
+                }));
+            } catch (IOException e) {
+                historyUnavailable = true;
+                System.err.println("Game history disabled: " + e.getMessage());
+            }
+        }
+        return history;
+    }
+
+    private void highlightWinner(String winner) {
+        boardView.markWin(engine.winningCells());
+    }
+
+    private void highlightTie() {
+        boardView.markTie();
+    }
+
+    private void updateTurnLabel() {
+        if (gameOver) return;
+        
+        if (aiMode) {
+            if (humanPlayer == null) {
+                textLabel.setText("Your Turn - Choose X or O");
+            } else if (currentPlayer.equals(humanPlayer)) {
+                textLabel.setText("Your Turn (" + humanPlayer + ")");
+            } else {
+                textLabel.setText("AI's Turn (" + aiPlayer + ")");
+            }
+        } else if (onlineMode) {
+            if (humanPlayer == null) {
+                textLabel.setText("Waiting for opponent...");
+            } else if (currentPlayer.equals(humanPlayer)) {
+                textLabel.setText("Your Turn (" + humanPlayer + ")");
+            } else {
+                textLabel.setText("Opponent's Turn");
+            }
+        } else {
+            textLabel.setText(currentPlayer + "'s Turn");
+        }
+    }
+
+    private String getScoreText() {
+        if (aiMode && humanPlayer != null) {
+            int humanWins = humanPlayer.equals(playerX) ? xWins : oWins;
+            int aiWins = humanPlayer.equals(playerX) ? oWins : xWins;
+            return String.format("You: %d  |  AI: %d  |  Ties: %d", humanWins, aiWins, ties);
+        }
+        if (onlineMode && humanPlayer != null) {
+            int humanWins = humanPlayer.equals(playerX) ? xWins : oWins;
+            int opponentWins = humanPlayer.equals(playerX) ? oWins : xWins;
+            return String.format("You: %d  |  Opponent: %d  |  Ties: %d", humanWins, opponentWins, ties);
+        }
+        return String.format("X: %d  |  O: %d  |  Ties: %d", xWins, oWins, ties);
+    }
+
+    private void updateScoreLabel() {
+        scoreLabel.setText(getScoreText());
+    }
+
+    private void disableBoard() {
+        boardView.setInputEnabled(false);
+    }
+
+    private void enableBoard() {
+        boardView.setInputEnabled(!gameOver);
+    }
+
+    private void cancelAiMove() {
+        pendingAiMove = null;
+        if (ai != null) ai.cancel();
+    }
+
+    private void restartGame() {
+        cancelAiMove();
+        
+        // Reset player assignments in AI mode
+        if (aiMode) {
+            humanPlayer = null;
+            aiPlayer = null;
+        }
+        
+        clearBoard();
+        
+        // Online, a new game means finding a new opponent
+        if (onlineMode) {
+            humanPlayer = null;
+            disableBoard();
+            client.playOnline();
+        }
+        
+        updateTurnLabel();
+    }
+
+    private void clearBoard() {
+        abandonGame();
+        gameId = newGameId();
+        gameOver = false;
+        currentPlayer = playerX;
+        engine.reset();
+        boardView.reset();
+    }
+
+    private void returnToMenu() {
+        cancelAiMove();
+        abandonGame();
+        if (ai != null) ai.close();
+        if (client != null) client.close();
+        frame.dispose();
+        showMainMenu();
+    }
+
+    // Server messages arrive on the client's reader thread and are replayed on the EDT
+    private final class OnlineListener implements GameClient.Listener {
+        @Override
+        public void onWaiting() {
+            SwingUtilities.invokeLater(() -> textLabel.setText("Waiting for opponent..."));
+        }
+
+        @Override
+        public void onStart(int side, int matchId) {
+            SwingUtilities.invokeLater(() -> {
+                clearBoard();
+                humanPlayer = side == GameEngine.X ? playerX : playerO;
+                if (!currentPlayer.equals(humanPlayer)) disableBoard();
+                updateTurnLabel();
+                updateScoreLabel();
+            });
+        }
+
+        @Override
+        public void onMoved(int player, int cell) {
+            SwingUtilities.invokeLater(() -> {
+                if (gameOver || !engine.isEmpty(cell)) return;
+                makeMove(cell, player == GameEngine.X ? playerX : playerO);
+                if (!gameOver && currentPlayer.equals(humanPlayer)) enableBoard();
+                else disableBoard();
+            });
+        }
+
+        @Override
+        public void onOver(String result) {
+            // Wins and ties are already detected locally from the moves
+            if (!result.equals("ABANDONED")) return;
+            SwingUtilities.invokeLater(() -> {
+                if (gameOver) return;
+                gameOver = true;
+                textLabel.setText("Opponent Left");
+                disableBoard();
+            });
+        }
+
+        @Override
+        public void onError(String message) {
+            SwingUtilities.invokeLater(() -> {
+                textLabel.setText(message);
+                if (!gameOver && humanPlayer != null && currentPlayer.equals(humanPlayer)) enableBoard();
+            });
+        }
+
+        @Override
+        public void onDisconnected() {
+            SwingUtilities.invokeLater(() -> {
+                if (!frame.isDisplayable()) return;
+                gameOver = true;
+                textLabel.setText("Disconnected");
+                disableBoard();
+            });
+        }
+    }
+
+    public static JFrame showMainMenu() {
+        JFrame startFrame = new JFrame("Tic-Tac-Toe");
+        startFrame.setSize(500, 770);
+        startFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        startFrame.setLocationRelativeTo(null);
+        startFrame.getContentPane().setBackground(new Color(45, 52, 54));
+        startFrame.setLayout(new BorderLayout());
+        startFrame.add(createMenuPanel(startFrame), BorderLayout.CENTER);
+        startFrame.setVisible(true);
+        return startFrame;
+    }
+
+    // The menu contents; split from the frame so it can be built without a display
+    static JPanel createMenuPanel(JFrame startFrame) {
+        JPanel mainPanel = new JPanel();
+        mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
+        mainPanel.setBackground(new Color(45, 52, 54));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(40, 50, 40, 50));
+
+        JLabel titleLabel = new JLabel("TIC-TAC-TOE");
+        titleLabel.setFont(TITLE_FONT);
+        titleLabel.setForeground(Color.WHITE);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JLabel subtitleLabel = new JLabel("Choose your game mode");
+        subtitleLabel.setFont(LABEL_FONT);
+        subtitleLabel.setForeground(Color.LIGHT_GRAY);
+        subtitleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Lifetime totals for classic games; the log is opened and scanned off the EDT
+        // so a large history never delays the first frame
+        JLabel historyLabel = new JLabel(" ");
+        CompletableFuture.supplyAsync(TicTacToeEnhanced::history).thenAccept(log -> {
+            if (log == null) return;
+            String text = String.format("History: %d games  |  X: %d  |  O: %d  |  Ties: %d",
+                    log.size(), log.getXWins(), log.getOWins(), log.getTies());
+            SwingUtilities.invokeLater(() -> historyLabel.setText(text));
+        });
+        historyLabel.setFont(SMALL_FONT);
+        historyLabel.setForeground(Color.GRAY);
+        historyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JComboBox<Variant> variantBox = new JComboBox<>(Variant.PRESETS);
+        variantBox.setFont(LABEL_FONT);
+        variantBox.setFocusable(false);
+        variantBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        variantBox.setMaximumSize(new Dimension(350, 40));
+
+        // Index matches AsyncAi.ALPHA_BETA and AsyncAi.MCTS
+        JComboBox<String> engineBox = new JComboBox<>(new String[] {"Alpha-Beta AI", "Monte Carlo AI"});
+        engineBox.setFont(LABEL_FONT);
+        engineBox.setFocusable(false);
+        engineBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        engineBox.setMaximumSize(new Dimension(350, 40));
+
+        JComboBox<Difficulty> difficultyBox = new JComboBox<>(Difficulty.LEVELS);
+        difficultyBox.setSelectedItem(Difficulty.HARD);
+        difficultyBox.setFont(LABEL_FONT);
+        difficultyBox.setFocusable(false);
+        difficultyBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+        difficultyBox.setMaximumSize(new Dimension(350, 40));
+
+        JButton vsPlayerBtn = createMenuButton("Player vs Player");
+        JButton vsAIBtn = createMenuButton("vs Smart AI");
+        JButton ultimateBtn = createMenuButton("Ultimate");
+        JButton onlineBtn = createMenuButton("Play Online");
+        JButton exitBtn = createMenuButton("Exit");
+        exitBtn.setBackground(new Color(200, 60, 60));
+
+        vsPlayerBtn.addActionListener(e -> {
+            startFrame.dispose();
+            new TicTacToeEnhanced(false, (Variant) variantBox.getSelectedItem());
+        });
+
+        vsAIBtn.addActionListener(e -> {
+            startFrame.dispose();
+            new TicTacToeEnhanced(true, (Variant) variantBox.getSelectedItem(), engineBox.getSelectedIndex(),
+                    (Difficulty) difficultyBox.getSelectedItem());
+        });
+
+        // Nine boards in one; the engine box does not apply, Ultimate always uses Monte Carlo
+        ultimateBtn.addActionListener(e -> {
+            String[] modes = {"Player vs Player", "vs Smart AI"};
+            int mode = JOptionPane.showOptionDialog(startFrame, "Choose a mode", "Ultimate Tic-Tac-Toe",
+                    JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, modes, modes[1]);
+            if (mode < 0) return;
+            startFrame.dispose();
+            new UltimateGame(mode == 1, (Difficulty) difficultyBox.getSelectedItem());
+        });
+
+        onlineBtn.addActionListener(e -> {
+            String server = JOptionPane.showInputDialog(startFrame, "Server (host:port)",
+                    "localhost:" + GameServer.DEFAULT_PORT);
+            if (server == null || server.isBlank()) return;
+            String[] parts = server.trim().split(":");
+            try {
+                int port = parts.length > 1 ? Integer.parseInt(parts[1]) : GameServer.DEFAULT_PORT;
+                new TicTacToeEnhanced(parts[0], port);
+                startFrame.dispose();
+            } catch (IOException | NumberFormatException ex) {
+                JOptionPane.showMessageDialog(startFrame, "Could not connect to " + server + ": " + ex.getMessage(),
+                        "Play Online", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        exitBtn.addActionListener(e -> System.exit(0));
+
+        mainPanel.add(titleLabel);
+        mainPanel.add(Box.createVerticalStrut(10));
+        mainPanel.add(subtitleLabel);
+        mainPanel.add(Box.createVerticalStrut(6));
+        mainPanel.add(historyLabel);
+        mainPanel.add(Box.createVerticalStrut(24));
+        mainPanel.add(variantBox);
+        mainPanel.add(Box.createVerticalStrut(10));
+        mainPanel.add(engineBox);
+        mainPanel.add(Box.createVerticalStrut(10));
+        mainPanel.add(difficultyBox);
+        mainPanel.add(Box.createVerticalStrut(20));
+        mainPanel.add(vsPlayerBtn);
+        mainPanel.add(Box.createVerticalStrut(15));
+        mainPanel.add(vsAIBtn);
+        mainPanel.add(Box.createVerticalStrut(15));
+        mainPanel.add(ultimateBtn);
+        mainPanel.add(Box.createVerticalStrut(15));
+        mainPanel.add(onlineBtn);
+        mainPanel.add(Box.createVerticalStrut(15));
+        mainPanel.add(exitBtn);
+
+        return mainPanel;
+    }
+
+    private static JButton createMenuButton(String text) {
+        JButton button = new JButton(text);
+        button.setFont(MENU_BUTTON_FONT);
+        button.setBackground(new Color(108, 92, 231));
+        button.setForeground(Color.WHITE);
+        button.setFocusable(false);
+        button.setAlignmentX(Component.CENTER_ALIGNMENT);
+        button.setMaximumSize(new Dimension(350, 60));
+        button.setBorder(BorderFactory.createEmptyBorder(15, 30, 15, 30));
+        return button;
+    }
+
+    public static void main(String[] args) {
+        Warmup.start();
+        SwingUtilities.invokeLater(TicTacToeEnhanced::showMainMenu);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package tictactoe.ui;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.*;
+
+import tictactoe.ai.AsyncAi;
+import tictactoe.ai.Difficulty;
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.GameEvent;
+import tictactoe.engine.UltimateBoard;
+
+// Window for Ultimate tic-tac-toe, against another player on the same machine
+// or against the Monte Carlo AI. Against the AI the sides swap every game, so
+// the human opens every other one. Moves and results go to the same event
+// stream as the other modes, with a board size of 9.
+final class UltimateGame {
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 780;
+    private static final long AI_THINK_DELAY_MS = Long.getLong("ttt.thinkDelayMs", AsyncAi.DEFAULT_THINK_DELAY_MS);
+    private static final long AI_TIME_BUDGET_MS = Long.getLong("ttt.timeBudgetMs", AsyncAi.DEFAULT_TIME_BUDGET_MS);
+    private static final Font STATUS_FONT = new Font("Arial", Font.BOLD, 32);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 18);
+
+    private final UltimateBoard board = new UltimateBoard();
+    private final AsyncAi ai; // null for two players
+    private CompletableFuture<Integer> pendingAiMove;
+    private int aiSide = GameEngine.O;
+    private long gameId = TicTacToeEnhanced.newGameId();
+    private int xWins;
+    private int oWins;
+    private int ties;
+    private int humanWins;
+    private int aiWins;
+
+    private JFrame frame;
+    private JLabel textLabel;
+    private JLabel scoreLabel;
+    private UltimateView view;
+
+    UltimateGame(boolean enableAI, Difficulty difficulty) {
+        if (enableAI) {
+            ai = new AsyncAi(ForkJoinPool.commonPool(), AI_THINK_DELAY_MS, AI_TIME_BUDGET_MS);
+            ai.setDifficulty(difficulty);
+        } else {
+            ai = null;
+        }
+        initializeUI();
+        updateTurnLabel();
+    }
+
+    private void initializeUI() {
+        frame = new JFrame("Tic-Tac-Toe - Ultimate");
+        frame.setSize(WIDTH, HEIGHT);
+        frame.setLocationRelativeTo(null);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+        frame.getContentPane().setBackground(BoardView.BG_COLOR);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                abandonGame();
+                if (ai != null) ai.close();
+            }
+        });
+
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setBackground(BoardView.BG_COLOR);
+        textLabel = new JLabel(" ", SwingConstants.CENTER);
+        textLabel.setForeground(Color.WHITE);
+        textLabel.setFont(STATUS_FONT);
+        scoreLabel = new JLabel(getScoreText(), SwingConstants.CENTER);
+        scoreLabel.setForeground(Color.LIGHT_GRAY);
+        scoreLabel.setFont(LABEL_FONT);
+        headerPanel.add(textLabel, BorderLayout.CENTER);
+        headerPanel.add(scoreLabel, BorderLayout.SOUTH);
+        frame.add(headerPanel, BorderLayout.NORTH);
+
+        view = new UltimateView(board, this::handleCellClick);
+        frame.add(view, BorderLayout.CENTER);
+
+        JPanel controlPanel = new JPanel(new FlowLayout());
+        controlPanel.setBackground(BoardView.BG_COLOR);
+        JButton restartButton = createButton("New Game", new Color(108, 92, 231));
+        restartButton.addActionListener(e -> restartGame());
+        JButton menuButton = createButton("Main Menu", new Color(200, 60, 60));
+        menuButton.addActionListener(e -> returnToMenu());
+        controlPanel.add(restartButton);
+        controlPanel.add(menuButton);
+        frame.add(controlPanel, BorderLayout.SOUTH);
+
+        frame.setVisible(true);
+    }
+
+    private static JButton createButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(BUTTON_FONT);
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusable(false);
+        button.setBorder(BorderFactory.createEmptyBorder(10, 30, 10, 30));
+        return button;
+    }
+
+    private void handleCellClick(int cell) {
+        if (!board.isLegal(cell)) return;
+        if (ai != null && board.currentPlayer() == aiSide) return;
+        makeMove(cell);
+    }
+
+    private void makeMove(int cell) {
+        int player = board.currentPlayer();
+        board.play(cell);
+        view.boardChanged();
+        TicTacToeEnhanced.events().publish(new GameEvent.MoveMade(gameId, 9, board.getMoveCount(), player, cell));
+        if (checkWinner()) return;
+        updateTurnLabel();
+        if (ai != null && board.currentPlayer() == aiSide) requestAiMove();
+    }
+
+    private void requestAiMove() {
+        textLabel.setText("AI thinking...");
+        view.setInputEnabled(false);
+        TicTacToeEnhanced.events().publish(new GameEvent.AiThinking(gameId, aiSide, true));
+        // Search runs on the AI worker; only the result comes back to the EDT
+        CompletableFuture<Integer> request = ai.requestMove(board);
+        pendingAiMove = request;
+        request.thenAccept(move -> SwingUtilities.invokeLater(() -> {
+            // A restart or a newer request makes this result stale
+            if (pendingAiMove != request || board.isGameOver()) return;
+            pendingAiMove = null;
+            TicTacToeEnhanced.events().publish(new GameEvent.AiThinking(gameId, aiSide, false));
+            view.setInputEnabled(true);
+            if (move >= 0) makeMove(move);
+        }));
+    }
+
+    private boolean checkWinner() {
+        int winner = board.getWinner();
+        if (winner == GameEngine.NONE) return false;
+        if (winner == GameEngine.TIE) {
+            ties++;
+            textLabel.setText("It's a Tie!");
+        } else {
+            if (winner == GameEngine.X) xWins++;
+            else oWins++;
+            if (ai != null && winner == aiSide) aiWins++;
+            else if (ai != null) humanWins++;
+            if (ai != null) textLabel.setText(winner == aiSide ? "AI Wins!" : "You Win!");
+            else textLabel.setText((winner == GameEngine.X ? "X" : "O") + " Wins!");
+        }
+        view.setInputEnabled(false);
+        view.markResult();
+        scoreLabel.setText(getScoreText());
+        TicTacToeEnhanced.events().publish(new GameEvent.GameOver(gameId, winner));
+        TicTacToeEnhanced.events().publish(new GameEvent.ScoreUpdated(gameId, xWins, oWins, ties));
+        return true;
+    }
+
+    private void updateTurnLabel() {
+        String side = board.currentPlayer() == GameEngine.X ? "X" : "O";
+        String where = board.getNextBoard() == UltimateBoard.ANY_BOARD ? "any board" : "the lit board";
+        if (ai == null) textLabel.setText(side + " to play in " + where);
+        else if (board.currentPlayer() == aiSide) textLabel.setText("AI's Turn (" + side + ")");
+        else textLabel.setText("Your Turn (" + side + "): " + where);
+    }
+
+    private String getScoreText() {
+        if (ai != null) {
+            return String.format("You: %d  |  AI: %d  |  Ties: %d", humanWins, aiWins, ties);
+        }
+        return String.format("X: %d  |  O: %d  |  Ties: %d", xWins, oWins, ties);
+    }
+
+    private void cancelAiMove() {
+        pendingAiMove = null;
+        if (ai != null) ai.cancel();
+    }
+
+    // A game left unfinished by a restart or closing the window
+    private void abandonGame() {
+        if (!board.isGameOver() && board.getMoveCount() > 0) {
+            TicTacToeEnhanced.events().publish(new GameEvent.GameOver(gameId, GameEngine.NONE));
+        }
+    }
+
+    private void restartGame() {
+        cancelAiMove();
+        abandonGame();
+        board.reset();
+        view.reset();
+        gameId = TicTacToeEnhanced.newGameId();
+        if (ai != null) aiSide = GameEngine.opponent(aiSide);
+        updateTurnLabel();
+        if (ai != null && board.currentPlayer() == aiSide) requestAiMove();
+    }
+
+    private void returnToMenu() {
+        cancelAiMove();
+        abandonGame();
+        if (ai != null) ai.close();
+        frame.dispose();
+        TicTacToeEnhanced.showMainMenu();
+    }
+}
@@ -0,0 +1,219 @@
+package tictactoe.ui;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.function.IntConsumer;
+import javax.swing.*;
+
+import tictactoe.engine.GameEngine;
+import tictactoe.engine.UltimateBoard;
+
+// Paints an Ultimate board: nine 3x3 boards with wide gutters between them.
+// Boards the side to move may play in are lit, decided boards are tinted in
+// the winner's colour with one large glyph over them, and the boards of the
+// winning line are marked at the end. A move can change which boards are lit
+// anywhere on the grid, so moves repaint the whole component (81 cells from
+// cached glyph images) and only hovering repaints a single cell.
+final class UltimateView extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final Color TILE_COLOR = new Color(99, 110, 114);
+    private static final Color PLAYABLE_COLOR = new Color(129, 140, 148);
+    private static final Color HOVER_COLOR = new Color(150, 160, 170);
+    private static final Color WIN_COLOR = new Color(46, 213, 115);
+    private static final Color TIE_COLOR = new Color(255, 159, 67);
+    private static final Color PLAYER_X_COLOR = new Color(52, 152, 219);
+    private static final Color PLAYER_O_COLOR = new Color(231, 76, 60);
+    private static final Color X_TINT = new Color(52, 152, 219, 70);
+    private static final Color O_TINT = new Color(231, 76, 60, 70);
+    private static final Color DRAWN_TINT = new Color(45, 52, 54, 120);
+    private static final Font GLYPH_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final int MARGIN = 10;
+    private static final int GAP = 3;
+    private static final int GUTTER = 12;
+
+    private final UltimateBoard board;
+    private boolean inputEnabled = true;
+    private boolean marked; // game over: show the winning line or the tie
+    private int hoverCell = -1;
+
+    // Geometry and glyphs for the current component size
+    private int cellSize;
+    private int boardPixels;
+    private int originX;
+    private int originY;
+    private int glyphSize = -1;
+    private BufferedImage xGlyph;
+    private BufferedImage oGlyph;
+    private BufferedImage bigX;
+    private BufferedImage bigO;
+
+    UltimateView(UltimateBoard board, IntConsumer onCellClicked) {
+        this.board = board;
+        setOpaque(true);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverCell(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverCell(-1);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (inputEnabled && cell >= 0 && SwingUtilities.isLeftMouseButton(e)) {
+                    onCellClicked.accept(cell);
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    // Call after the board plays or undoes a move
+    void boardChanged() {
+        repaint();
+    }
+
+    void markResult() {
+        marked = true;
+        repaint();
+    }
+
+    // Clears marks after the board has been reset
+    void reset() {
+        marked = false;
+        inputEnabled = true;
+        repaint();
+    }
+
+    void setInputEnabled(boolean enabled) {
+        if (inputEnabled == enabled) return;
+        inputEnabled = enabled;
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(540, 540);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        layoutCells();
+        g.setColor(BoardView.BG_COLOR);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (cellSize <= 0) return;
+
+        int winningBoards = 0;
+        if (marked) {
+            for (int b : board.winningBoards()) winningBoards |= 1 << b;
+        }
+        for (int b = 0; b < UltimateBoard.BOARDS; b++) {
+            int boardX = originX + b % 3 * (boardPixels + GUTTER);
+            int boardY = originY + b / 3 * (boardPixels + GUTTER);
+            boolean playable = inputEnabled && board.isPlayable(b);
+            Color base = TILE_COLOR;
+            if ((winningBoards & (1 << b)) != 0) base = WIN_COLOR;
+            else if (marked && board.getWinner() == GameEngine.TIE) base = TIE_COLOR;
+            else if (playable) base = PLAYABLE_COLOR;
+            for (int s = 0; s < GameEngine.CELLS; s++) {
+                int cell = UltimateBoard.cell(b, s);
+                int x = boardX + s % 3 * (cellSize + GAP);
+                int y = boardY + s / 3 * (cellSize + GAP);
+                int owner = board.owner(cell);
+                g.setColor(cell == hoverCell && playable && owner == GameEngine.NONE ? HOVER_COLOR : base);
+                g.fillRect(x, y, cellSize, cellSize);
+                if (owner != GameEngine.NONE) g.drawImage(owner == GameEngine.X ? xGlyph : oGlyph, x, y, null);
+            }
+
+            int result = board.boardWinner(b);
+            if (result == GameEngine.NONE) continue;
+            g.setColor(result == GameEngine.X ? X_TINT : result == GameEngine.O ? O_TINT : DRAWN_TINT);
+            g.fillRect(boardX, boardY, boardPixels, boardPixels);
+            if (result != GameEngine.TIE) g.drawImage(result == GameEngine.X ? bigX : bigO, boardX, boardY, null);
+        }
+    }
+
+    // Recomputes the grid for the current size and re-renders the glyphs if it changed
+    private void layoutCells() {
+        int available = Math.min(getWidth(), getHeight()) - 2 * MARGIN - 2 * GUTTER;
+        cellSize = Math.max(0, (available - 6 * GAP) / 9);
+        boardPixels = 3 * cellSize + 2 * GAP;
+        int total = 3 * boardPixels + 2 * GUTTER;
+        originX = (getWidth() - total) / 2;
+        originY = (getHeight() - total) / 2;
+        if (cellSize > 0 && cellSize != glyphSize) {
+            xGlyph = renderGlyph("X", PLAYER_X_COLOR, cellSize);
+            oGlyph = renderGlyph("O", PLAYER_O_COLOR, cellSize);
+            bigX = renderGlyph("X", PLAYER_X_COLOR, boardPixels);
+            bigO = renderGlyph("O", PLAYER_O_COLOR, boardPixels);
+            glyphSize = cellSize;
+        }
+    }
+
+    private BufferedImage renderGlyph(String text, Color color, int size) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(size, size, Transparency.TRANSLUCENT)
+                : new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(GLYPH_FONT.deriveFont(size * 0.6f));
+            g.setColor(color);
+            FontMetrics metrics = g.getFontMetrics();
+            int x = (size - metrics.stringWidth(text)) / 2;
+            int y = (size - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(text, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // Cell under the point, or -1 for the margins, gutters and gaps
+    private int cellAt(int x, int y) {
+        if (cellSize <= 0) return -1;
+        int col = axisCell(x - originX);
+        int row = axisCell(y - originY);
+        return col < 0 || row < 0 ? -1 : UltimateBoard.cellAt(row, col);
+    }
+
+    // Column (or row) 0-8 under an offset from the grid origin, or -1 between cells
+    private int axisCell(int offset) {
+        if (offset < 0) return -1;
+        int outer = offset / (boardPixels + GUTTER);
+        int inner = offset % (boardPixels + GUTTER);
+        if (outer >= 3 || inner >= boardPixels) return -1;
+        int square = inner / (cellSize + GAP);
+        if (inner % (cellSize + GAP) >= cellSize) return -1;
+        return outer * 3 + square;
+    }
+
+    private void setHoverCell(int cell) {
+        if (cell == hoverCell) return;
+        int previous = hoverCell;
+        hoverCell = cell;
+        if (previous >= 0) repaintCell(previous);
+        if (cell >= 0) repaintCell(cell);
+    }
+
+    private void repaintCell(int cell) {
+        if (cellSize <= 0) {
+            repaint();
+            return;
+        }
+        int row = UltimateBoard.row(cell);
+        int col = UltimateBoard.col(cell);
+        int x = originX + col / 3 * (boardPixels + GUTTER) + col % 3 * (cellSize + GAP);
+        int y = originY + row / 3 * (boardPixels + GUTTER) + row % 3 * (cellSize + GAP);
+        repaint(x, y, cellSize, cellSize);
+    }
+}